@@ -0,0 +1,61 @@
+package com.paisa.benchmark;
+
+import com.paisa.dto.AIRecommendationDto;
+import com.paisa.service.AIRecommendationCache;
+import com.paisa.service.AIService;
+import com.paisa.service.SpendProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Prompt construction and response parsing around each Gemini call; no network is involved
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AIServiceBenchmark {
+
+    // Expense categories in the prompt and recommendations in the response
+    @Param({"5", "50", "500"})
+    private int size;
+
+    private AIService aiService;
+    private SpendProfile profile;
+    private String response;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        aiService = new AIService(null, new AIRecommendationCache(meterRegistry, 10, Duration.ofHours(1)),
+                meterRegistry);
+        profile = new SpendProfile(BenchmarkData.EPOCH.minusMonths(3), BenchmarkData.EPOCH,
+                new BigDecimal("250000.00"), new BigDecimal("180000.00"), BenchmarkData.categoryTotals(size));
+
+        Random random = new Random(BenchmarkData.SEED);
+        StringBuilder json = new StringBuilder("{\"recommendations\": [");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(", ");
+            }
+            json.append('"').append("Cut back on ").append(BenchmarkData.description(random)).append('"');
+        }
+        json.append("], \"summary\": \"Spending is within income but discretionary categories are growing.\"}");
+        response = json.toString();
+    }
+
+    @Benchmark
+    public String buildPrompt() {
+        return AIService.buildPrompt(profile);
+    }
+
+    @Benchmark
+    public AIRecommendationDto parseAIResponse() {
+        return aiService.parseAIResponse(response);
+    }
+}
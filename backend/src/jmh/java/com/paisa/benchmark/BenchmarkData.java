@@ -0,0 +1,154 @@
+package com.paisa.benchmark;
+
+import com.paisa.dto.AccountDto;
+import com.paisa.dto.TransactionDto;
+import com.paisa.entity.Account;
+import com.paisa.entity.MonthlyRollup;
+import com.paisa.entity.Transaction;
+import com.paisa.repository.TransactionRepository;
+import com.paisa.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Synthetic data for the benchmarks. Every generator starts from the same seed, so a given size produces the
+// same rows on every run and results stay comparable across commits.
+final class BenchmarkData {
+
+    static final long SEED = 42;
+    static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final String[] CATEGORIES = {
+        "groceries", "rent", "utilities", "transport", "dining", "entertainment", "healthcare", "shopping",
+        "education", "travel", "insurance", "salary", "freelance", "investments", "gifts", "other-expense"
+    };
+    private static final String[] WORDS = {
+        "monthly", "payment", "store", "online", "transfer", "card", "refund", "subscription", "market",
+        "coffee", "fuel", "ticket", "order", "invoice", "bill", "service"
+    };
+
+    private BenchmarkData() {
+    }
+
+    static List<Account> accounts(Random random, int count) {
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Account account = new Account();
+            account.setId("account-" + i);
+            account.setName("Account " + i);
+            account.setType(i % 2 == 0 ? Account.AccountType.CURRENT : Account.AccountType.SAVINGS);
+            account.setBalance(amount(random, 1_000_000));
+            account.setIsDefault(i == 0);
+            account.setCreatedAt(EPOCH);
+            account.setUpdatedAt(EPOCH);
+            accounts.add(account);
+        }
+        return accounts;
+    }
+
+    static List<Transaction> transactions(int count) {
+        Random random = new Random(SEED);
+        List<Account> accounts = accounts(random, 5);
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean income = random.nextInt(5) == 0;
+            LocalDateTime date = EPOCH.plusMinutes(random.nextInt(365 * 24 * 60));
+            Transaction transaction = new Transaction();
+            transaction.setId("transaction-" + i);
+            transaction.setType(income ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE);
+            transaction.setAmount(amount(random, income ? 100_000 : 10_000));
+            transaction.setDescription(description(random));
+            transaction.setDate(date);
+            transaction.setCategory(category(random));
+            transaction.setIsRecurring(random.nextInt(10) == 0);
+            transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+            transaction.setAccount(accounts.get(random.nextInt(accounts.size())));
+            transaction.setCreatedAt(date);
+            transaction.setUpdatedAt(date);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    static List<TransactionDto> transactionDtos(int count) {
+        return transactions(count).stream().map(TransactionService::convertToDto).toList();
+    }
+
+    static List<AccountDto> accountDtos(int count) {
+        return accounts(new Random(SEED), count).stream()
+                .map(account -> new AccountDto(account.getId(), account.getName(), account.getType(),
+                        account.getBalance(), account.getIsDefault(), account.getCreatedAt(), account.getUpdatedAt()))
+                .toList();
+    }
+
+    // One rollup per category and type, as MonthlyRollupService keeps them for a single month
+    static List<MonthlyRollup> rollups(int categories) {
+        Random random = new Random(SEED);
+        List<MonthlyRollup> rollups = new ArrayList<>(categories * 2);
+        for (int i = 0; i < categories; i++) {
+            for (Transaction.TransactionType type : Transaction.TransactionType.values()) {
+                MonthlyRollup rollup = new MonthlyRollup();
+                rollup.setPeriodStart(LocalDate.of(2024, 1, 1));
+                rollup.setType(type);
+                rollup.setCategory(CATEGORIES[i % CATEGORIES.length] + "-" + i);
+                rollup.setAmount(amount(random, 100_000));
+                rollup.setTransactionCount((long) random.nextInt(50));
+                rollups.add(rollup);
+            }
+        }
+        return rollups;
+    }
+
+    static List<TransactionRepository.CategoryTotal> categoryTotals(int categories) {
+        Random random = new Random(SEED);
+        List<TransactionRepository.CategoryTotal> totals = new ArrayList<>(categories);
+        for (int i = 0; i < categories; i++) {
+            totals.add(new CategoryTotalRow(CATEGORIES[i % CATEGORIES.length] + "-" + i,
+                    amount(random, 100_000), (long) random.nextInt(200)));
+        }
+        return totals;
+    }
+
+    static String description(Random random) {
+        int words = 2 + random.nextInt(4);
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                description.append(' ');
+            }
+            description.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return description.toString();
+    }
+
+    private static String category(Random random) {
+        return CATEGORIES[random.nextInt(CATEGORIES.length)];
+    }
+
+    private static BigDecimal amount(Random random, int maxPaise) {
+        return BigDecimal.valueOf(1 + random.nextInt(maxPaise), 2);
+    }
+
+    private record CategoryTotalRow(String category, BigDecimal total, Long transactionCount)
+            implements TransactionRepository.CategoryTotal {
+
+        @Override
+        public String getCategory() {
+            return category;
+        }
+
+        @Override
+        public BigDecimal getTotal() {
+            return total;
+        }
+
+        @Override
+        public Long getTransactionCount() {
+            return transactionCount;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.paisa.benchmark;
+
+import com.paisa.entity.MonthlyRollup;
+import com.paisa.service.DashboardService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Folding a month of rollups into income, expense and per-category totals for the dashboard
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardServiceBenchmark {
+
+    @Param({"16", "200", "2000"})
+    private int categories;
+
+    private List<MonthlyRollup> rollups;
+
+    @Setup
+    public void setUp() {
+        rollups = BenchmarkData.rollups(categories);
+    }
+
+    @Benchmark
+    public DashboardService.MonthTotals summarizeMonth() {
+        return DashboardService.summarizeMonth(rollups);
+    }
+}
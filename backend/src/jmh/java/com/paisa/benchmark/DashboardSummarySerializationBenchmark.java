@@ -0,0 +1,52 @@
+package com.paisa.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.paisa.dto.DashboardSummaryDto;
+import com.paisa.dto.TransactionDto;
+import com.paisa.entity.MonthlyRollup;
+import com.paisa.service.DashboardService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON encoding of the dashboard response with the mapper settings from application.yml
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardSummarySerializationBenchmark {
+
+    // Recent transactions and expense categories in the summary
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private DashboardSummaryDto summary;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<MonthlyRollup> rollups = BenchmarkData.rollups(size);
+        DashboardService.MonthTotals month = DashboardService.summarizeMonth(rollups);
+        List<TransactionDto> recentTransactions = BenchmarkData.transactionDtos(size);
+        summary = new DashboardSummaryDto(new BigDecimal("1250000.00"), month.income(), month.expense(),
+                new BigDecimal("50000.00"), month.expense(), BenchmarkData.accountDtos(5), recentTransactions,
+                month.expensesByCategory());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summary);
+    }
+}
@@ -0,0 +1,72 @@
+package com.paisa.benchmark;
+
+import com.paisa.entity.User;
+import com.paisa.security.JwtTokenProvider;
+import com.paisa.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-request JWT authentication cost: the original double parse with a freshly derived key,
+// a single verification with the cached key and parser, and a hit in the verified-token cache.
+// Token generation is measured as issued on login.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-64-bytes-long-for-hs512-signing";
+
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider uncachedProvider;
+    private UsernamePasswordAuthenticationToken authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedProvider = new JwtTokenProvider(SECRET, 3_600_000, 10_000);
+        uncachedProvider = new JwtTokenProvider(SECRET, 3_600_000, 0);
+        UserPrincipal principal = new UserPrincipal("user-1", "user@example.com", "User", null, User.Role.USER);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = cachedProvider.generateToken(authentication);
+        cachedProvider.parseClaims(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncachedProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String doubleParseWithDerivedKey() {
+        Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token);
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    @Benchmark
+    public UserPrincipal singleVerify() {
+        Claims claims = uncachedProvider.parseClaims(token);
+        return uncachedProvider.getPrincipalFromClaims(claims);
+    }
+
+    @Benchmark
+    public UserPrincipal cachedVerify() {
+        Claims claims = cachedProvider.parseClaims(token);
+        return cachedProvider.getPrincipalFromClaims(claims);
+    }
+}
@@ -0,0 +1,34 @@
+package com.paisa.benchmark;
+
+import com.paisa.dto.TransactionDto;
+import com.paisa.entity.Transaction;
+import com.paisa.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity-to-DTO mapping for a page, an export chunk and a full history read
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionServiceBenchmark {
+
+    @Param({"50", "10000", "100000"})
+    private int size;
+
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setUp() {
+        transactions = BenchmarkData.transactions(size);
+    }
+
+    @Benchmark
+    public List<TransactionDto> convertToDto() {
+        return transactions.stream().map(TransactionService::convertToDto).toList();
+    }
+}
@@ -0,0 +1,403 @@
+package com.paisa.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Replays a mix of authenticated API calls against a running instance as users created by the seed profile,
+// then reports throughput and p50/p99/p99.9 latency per endpoint. Each thread is a closed loop: it logs in as a
+// random seeded user, works through a session of calls, then logs in again as someone else.
+// Usage: mvn -Ploadtest compile exec:java -Dexec.args="--threads=32 --duration=2m"
+public class LoadDriver {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final String[] CATEGORIES = {
+        "Food", "Transport", "Shopping", "Bills", "Entertainment", "Healthcare", "Education", "Other"
+    };
+
+    // Share of calls within a session; logins and account lookups happen once per session on top of these
+    private static final Operation[] MIX = {
+        new Operation("GET /dashboard", 30),
+        new Operation("GET /transactions/page", 25),
+        new Operation("GET /transactions/{id}", 10),
+        new Operation("POST /transactions", 12),
+        new Operation("PUT /transactions/{id}", 8),
+        new Operation("DELETE /transactions/{id}", 5),
+        new Operation("GET /ai/insights", 8),
+        new Operation("POST /ai/recommendations", 2)
+    };
+    private static final int MIX_WEIGHT = 100;
+
+    private final Options options;
+    private final HttpClient httpClient;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private volatile long measureFromNanos;
+
+    LoadDriver(Options options) {
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        stats.put("POST /auth/login", new EndpointStats());
+        stats.put("GET /accounts", new EndpointStats());
+        for (Operation operation : MIX) {
+            stats.put(operation.endpoint(), new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        long errors = new LoadDriver(options).run();
+        // With the server in query-budget.enforce mode an endpoint over its budget fails, so this fails the build
+        if (options.failOnErrors && errors > 0) {
+            System.err.printf("%d requests failed%n", errors);
+            System.exit(1);
+        }
+    }
+
+    long run() throws InterruptedException, IOException {
+        System.out.printf("Driving %s with %d threads as %d seeded users: %ds warmup, %ds measured%n",
+                options.baseUrl, options.threads, options.users, options.warmup.toSeconds(),
+                options.duration.toSeconds());
+        long started = System.nanoTime();
+        measureFromNanos = started + options.warmup.toNanos();
+        long deadline = measureFromNanos + options.duration.toNanos();
+
+        CountDownLatch done = new CountDownLatch(options.threads);
+        for (int i = 0; i < options.threads; i++) {
+            Random random = new Random(options.seed + i);
+            Thread worker = new Thread(() -> {
+                try {
+                    runWorker(random, deadline);
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+
+        double seconds = (System.nanoTime() - measureFromNanos) / 1e9;
+        return report(seconds);
+    }
+
+    private void runWorker(Random random, long deadline) {
+        while (System.nanoTime() < deadline) {
+            Session session = login(random);
+            if (session == null) {
+                pause(Duration.ofMillis(100));
+                continue;
+            }
+            for (int i = 0; i < options.sessionLength && System.nanoTime() < deadline; i++) {
+                call(session, random, pick(random));
+                if (!options.thinkTime.isZero()) {
+                    pause(options.thinkTime);
+                }
+            }
+        }
+    }
+
+    private Session login(Random random) {
+        String email = "seed" + random.nextInt(options.users) + "@paisa.test";
+        ObjectNode body = JSON.createObjectNode().put("email", email).put("password", options.password);
+        JsonNode response = send("POST /auth/login", null, "POST", "/auth/login", body);
+        if (response == null) {
+            return null;
+        }
+        Session session = new Session(response.path("token").asText());
+        JsonNode accounts = send("GET /accounts", session.token, "GET", "/accounts", null);
+        if (accounts == null || !accounts.isArray() || accounts.isEmpty()) {
+            return null;
+        }
+        accounts.forEach(account -> session.accountIds.add(account.path("id").asText()));
+        return session;
+    }
+
+    private void call(Session session, Random random, Operation operation) {
+        switch (operation.endpoint()) {
+            case "GET /dashboard" -> send(operation.endpoint(), session.token, "GET", "/dashboard", null);
+            case "GET /transactions/page" -> {
+                JsonNode page = send(operation.endpoint(), session.token, "GET", "/transactions/page?limit=50", null);
+                if (page != null) {
+                    session.seenIds.clear();
+                    page.path("items").forEach(item -> session.seenIds.add(item.path("id").asText()));
+                }
+            }
+            case "GET /transactions/{id}" -> {
+                if (session.seenIds.isEmpty()) {
+                    call(session, random, MIX[1]);
+                    return;
+                }
+                String id = session.seenIds.get(random.nextInt(session.seenIds.size()));
+                send(operation.endpoint(), session.token, "GET", "/transactions/" + id, null);
+            }
+            case "POST /transactions" -> {
+                JsonNode created = send(operation.endpoint(), session.token, "POST", "/transactions",
+                        transactionBody(session, random));
+                if (created != null) {
+                    session.createdIds.add(created.path("id").asText());
+                }
+            }
+            // Updates and deletes only touch rows this driver created, so the seeded history stays intact
+            case "PUT /transactions/{id}" -> {
+                if (session.createdIds.isEmpty()) {
+                    call(session, random, MIX[3]);
+                    return;
+                }
+                String id = session.createdIds.get(random.nextInt(session.createdIds.size()));
+                send(operation.endpoint(), session.token, "PUT", "/transactions/" + id,
+                        transactionBody(session, random));
+            }
+            case "DELETE /transactions/{id}" -> {
+                if (session.createdIds.isEmpty()) {
+                    call(session, random, MIX[3]);
+                    return;
+                }
+                String id = session.createdIds.remove(random.nextInt(session.createdIds.size()));
+                send(operation.endpoint(), session.token, "DELETE", "/transactions/" + id, null);
+            }
+            case "GET /ai/insights" -> send(operation.endpoint(), session.token, "GET", "/ai/insights", null);
+            case "POST /ai/recommendations" ->
+                    send(operation.endpoint(), session.token, "POST", "/ai/recommendations", null);
+            default -> throw new IllegalStateException("Unknown operation " + operation.endpoint());
+        }
+    }
+
+    private static ObjectNode transactionBody(Session session, Random random) {
+        boolean income = random.nextInt(10) == 0;
+        return JSON.createObjectNode()
+                .put("type", income ? "INCOME" : "EXPENSE")
+                .put("amount", BigDecimal.valueOf(100 + random.nextInt(500_000), 2))
+                .put("description", "load test " + random.nextInt(1000))
+                .put("date", LocalDateTime.now().minusDays(random.nextInt(60)).withNano(0).toString())
+                .put("category", income ? "Other" : CATEGORIES[random.nextInt(CATEGORIES.length)])
+                .put("accountId", session.accountIds.get(random.nextInt(session.accountIds.size())))
+                .put("isRecurring", false)
+                .put("status", "COMPLETED");
+    }
+
+    // Returns the parsed body of a 2xx response, or null after counting the failure
+    private JsonNode send(String endpoint, String token, String method, String path, JsonNode body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(options.baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(body.toString()));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        long started = System.nanoTime();
+        boolean ok;
+        String responseBody = null;
+        try {
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            ok = response.statusCode() / 100 == 2;
+            responseBody = response.body();
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        long finished = System.nanoTime();
+        if (started >= measureFromNanos) {
+            stats.get(endpoint).record(TimeUnit.NANOSECONDS.toMicros(finished - started), ok);
+        }
+        if (!ok) {
+            return null;
+        }
+        try {
+            return responseBody == null || responseBody.isEmpty() ? JSON.nullNode() : JSON.readTree(responseBody);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Operation pick(Random random) {
+        int roll = random.nextInt(MIX_WEIGHT);
+        for (Operation operation : MIX) {
+            roll -= operation.weight();
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return MIX[0];
+    }
+
+    private static void pause(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long report(double seconds) throws IOException {
+        ArrayNode endpoints = JSON.createArrayNode();
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        long totalErrors = 0;
+
+        System.out.printf("%n%-28s %9s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s",
+                "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+            Histogram latencies = entry.getValue().latencies;
+            long errors = entry.getValue().errors.get();
+            total.add(latencies);
+            totalErrors += errors;
+            endpoints.add(printRow(entry.getKey(), latencies, errors, seconds));
+        }
+        ObjectNode summary = printRow("total", total, totalErrors, seconds);
+
+        ObjectNode result = JSON.createObjectNode();
+        result.put("baseUrl", options.baseUrl);
+        result.put("threads", options.threads);
+        result.put("seconds", seconds);
+        result.set("total", summary);
+        result.set("endpoints", endpoints);
+        File file = new File(options.report);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        JSON.writerWithDefaultPrettyPrinter().writeValue(file, result);
+        System.out.println("\nResults written to " + file.getPath());
+        return totalErrors;
+    }
+
+    private static ObjectNode printRow(String endpoint, Histogram latencies, long errors, double seconds) {
+        long requests = latencies.getTotalCount();
+        double throughput = requests / seconds;
+        double p50 = millis(latencies, 50);
+        double p99 = millis(latencies, 99);
+        double p999 = millis(latencies, 99.9);
+        double max = latencies.getMaxValue() / 1000.0;
+        System.out.printf("%-28s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", endpoint, requests, errors, throughput,
+                p50, p99, p999, max);
+        return JSON.createObjectNode()
+                .put("endpoint", endpoint)
+                .put("requests", requests)
+                .put("errors", errors)
+                .put("throughput", throughput)
+                .put("p50Ms", p50)
+                .put("p99Ms", p99)
+                .put("p999Ms", p999)
+                .put("maxMs", max);
+    }
+
+    private static double millis(Histogram latencies, double percentile) {
+        return latencies.getTotalCount() == 0 ? 0 : latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private record Operation(String endpoint, int weight) {
+    }
+
+    private static final class Session {
+
+        private final String token;
+        private final List<String> accountIds = new ArrayList<>();
+        private final List<String> seenIds = new ArrayList<>();
+        private final List<String> createdIds = new ArrayList<>();
+
+        Session(String token) {
+            this.token = token;
+        }
+    }
+
+    // Failed calls count as errors and are kept out of the latency percentiles
+    private static final class EndpointStats {
+
+        private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long micros, boolean ok) {
+            if (ok) {
+                latencies.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+            } else {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    static final class Options {
+
+        String baseUrl = "http://localhost:8080/api";
+        int users = 1000;
+        String password = "password123";
+        int threads = 16;
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(60);
+        int sessionLength = 50;
+        Duration thinkTime = Duration.ZERO;
+        long seed = 42;
+        String report = "target/loadtest-result.json";
+        boolean failOnErrors = false;
+
+        // --name=value pairs; users and password must match the seed profile that filled the database
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                int equals = arg.indexOf('=');
+                if (!arg.startsWith("--") || equals < 0) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                values.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+            Options options = new Options();
+            options.baseUrl = values.getOrDefault("base-url", options.baseUrl);
+            options.users = Integer.parseInt(values.getOrDefault("users", String.valueOf(options.users)));
+            options.password = values.getOrDefault("password", options.password);
+            options.threads = Integer.parseInt(values.getOrDefault("threads", String.valueOf(options.threads)));
+            options.warmup = duration(values.getOrDefault("warmup", "10s"));
+            options.duration = duration(values.getOrDefault("duration", "60s"));
+            options.sessionLength = Integer.parseInt(values.getOrDefault("session-length",
+                    String.valueOf(options.sessionLength)));
+            options.thinkTime = duration(values.getOrDefault("think-time", "0ms"));
+            options.seed = Long.parseLong(values.getOrDefault("seed", String.valueOf(options.seed)));
+            options.report = values.getOrDefault("report", options.report);
+            options.failOnErrors = Boolean.parseBoolean(values.getOrDefault("fail-on-errors", "false"));
+            return options;
+        }
+
+        // 500ms, 30s or 5m
+        private static Duration duration(String value) {
+            if (value.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+            }
+            long amount = Long.parseLong(value.substring(0, value.length() - 1));
+            return switch (value.charAt(value.length() - 1)) {
+                case 's' -> Duration.ofSeconds(amount);
+                case 'm' -> Duration.ofMinutes(amount);
+                default -> throw new IllegalArgumentException("Unknown duration unit in " + value);
+            };
+        }
+    }
+}
@@ -1,39 +1,56 @@
 package com.paisa.controller;
 
 import com.paisa.dto.AIRecommendationDto;
+import com.paisa.dto.InsightsDto;
 import com.paisa.service.AIService;
+import com.paisa.service.InsightService;
+import com.paisa.util.SecurityUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/ai")
+@QueryBudget(8)
 @CrossOrigin(origins = "http://localhost:3000")
 public class AIController {
     
+    private static final Logger logger = LoggerFactory.getLogger(AIController.class);
+    
     private final AIService aiService;
+    private final InsightService insightService;
     
-    public AIController(AIService aiService) {
+    public AIController(AIService aiService, InsightService insightService) {
         this.aiService = aiService;
+        this.insightService = insightService;
     }
     
+    // Returns a future so the servlet thread is released while the Gemini call is in flight
     @PostMapping("/recommendations")
-    public ResponseEntity<AIRecommendationDto> getRecommendations(Authentication authentication) {
-        String email = authentication.getName();
+    public CompletableFuture<ResponseEntity<AIRecommendationDto>> getRecommendations(Authentication authentication) {
+        String userId = SecurityUtil.getUserId(authentication);
+        CompletableFuture<AIRecommendationDto> recommendations;
         try {
-            AIRecommendationDto recommendations = aiService.getRecommendations(email);
-            return ResponseEntity.ok(recommendations);
+            recommendations = insightService.getRecommendationsAsync(userId);
         } catch (RuntimeException e) {
-            // Log the error for debugging
-            System.err.println("AI Service Error: " + e.getMessage());
-            e.printStackTrace();
-            // Return default recommendations instead of error
-            return ResponseEntity.ok(aiService.getDefaultRecommendations());
-        } catch (Exception e) {
-            System.err.println("Unexpected AI Service Error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.ok(aiService.getDefaultRecommendations());
+            recommendations = CompletableFuture.failedFuture(e);
         }
+        return recommendations
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    logger.warn("AI recommendations unavailable for user {}, serving defaults: {}", userId,
+                            e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                    return ResponseEntity.ok(aiService.getDefaultRecommendations());
+                });
+    }
+    
+    @GetMapping("/insights")
+    public ResponseEntity<InsightsDto> getInsights(Authentication authentication) {
+        String userId = SecurityUtil.getUserId(authentication);
+        return ResponseEntity.ok(insightService.getInsights(userId));
     }
 }
-
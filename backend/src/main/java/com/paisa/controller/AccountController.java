@@ -1,16 +1,24 @@
 package com.paisa.controller;
 
+import com.paisa.dto.AccountBalanceDto;
 import com.paisa.dto.AccountDto;
+import com.paisa.dto.BalanceSeriesDto;
 import com.paisa.service.AccountService;
+import com.paisa.util.SecurityUtil;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/accounts")
+@QueryBudget(3)
 @CrossOrigin(origins = "http://localhost:3000")
 public class AccountController {
     
@@ -20,17 +28,18 @@ public class AccountController {
         this.accountService = accountService;
     }
     
+    @QueryBudget(4)
     @PostMapping
     public ResponseEntity<AccountDto> createAccount(@RequestBody AccountDto accountDto, 
                                                     Authentication authentication) {
-        String userId = authentication.getName();
+        String userId = SecurityUtil.getUserId(authentication);
         AccountDto created = accountService.createAccount(accountDto, userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
     
     @GetMapping
     public ResponseEntity<List<AccountDto>> getUserAccounts(Authentication authentication) {
-        String userId = authentication.getName();
+        String userId = SecurityUtil.getUserId(authentication);
         List<AccountDto> accounts = accountService.getUserAccounts(userId);
         return ResponseEntity.ok(accounts);
     }
@@ -38,7 +47,7 @@ public class AccountController {
     @GetMapping("/{id}")
     public ResponseEntity<AccountDto> getAccount(@PathVariable String id, 
                                                  Authentication authentication) {
-        String userId = authentication.getName();
+        String userId = SecurityUtil.getUserId(authentication);
         try {
             AccountDto account = accountService.getAccountById(id, userId);
             return ResponseEntity.ok(account);
@@ -47,11 +56,47 @@ public class AccountController {
         }
     }
     
+    // Balance as it stood at asOf (default now), from the nearest ledger snapshot plus the entries after it
+    @QueryBudget(6)
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<AccountBalanceDto> getBalance(
+            @PathVariable String id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
+            Authentication authentication) {
+        String userId = SecurityUtil.getUserId(authentication);
+        try {
+            return ResponseEntity.ok(accountService.getBalanceAsOf(id, asOf != null ? asOf : LocalDateTime.now(), userId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    // Dense closing-balance series for charts; from defaults to a year before to, to defaults to today
+    @QueryBudget(6)
+    @GetMapping("/{id}/balance-series")
+    public ResponseEntity<BalanceSeriesDto> getBalanceSeries(
+            @PathVariable String id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity,
+            Authentication authentication) {
+        String userId = SecurityUtil.getUserId(authentication);
+        LocalDate end = to != null ? to : LocalDate.now();
+        try {
+            return ResponseEntity.ok(accountService.getBalanceSeries(id, from != null ? from : end.minusYears(1), end,
+                    BalanceSeriesDto.Granularity.valueOf(granularity.toUpperCase(Locale.ROOT)), userId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<AccountDto> updateAccount(@PathVariable String id,
                                                     @RequestBody AccountDto accountDto,
                                                     Authentication authentication) {
-        String userId = authentication.getName();
+        String userId = SecurityUtil.getUserId(authentication);
         try {
             AccountDto updated = accountService.updateAccount(id, accountDto, userId);
             return ResponseEntity.ok(updated);
@@ -60,10 +105,11 @@ public class AccountController {
         }
     }
     
+    @QueryBudget(8)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteAccount(@PathVariable String id,
                                               Authentication authentication) {
-        String userId = authentication.getName();
+        String userId = SecurityUtil.getUserId(authentication);
         try {
             accountService.deleteAccount(id, userId);
             return ResponseEntity.noContent().build();
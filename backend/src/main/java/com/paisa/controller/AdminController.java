@@ -1,43 +1,289 @@
 package com.paisa.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paisa.dto.AccountBalanceDto;
 import com.paisa.dto.AdminAccountDto;
 import com.paisa.dto.AdminTransactionDto;
+import com.paisa.dto.AdminTransactionFilter;
 import com.paisa.dto.AdminUserDto;
+import com.paisa.dto.CursorPageDto;
+import com.paisa.dto.JobRunDto;
+import com.paisa.dto.PlatformStatsDto;
+import com.paisa.entity.Account;
+import com.paisa.entity.Transaction;
 import com.paisa.service.AdminService;
+import com.paisa.service.BudgetAlertService;
+import com.paisa.service.BudgetTrackingService;
+import com.paisa.service.LedgerService;
+import com.paisa.service.MonthlyRollupService;
+import com.paisa.service.PlatformStatsService;
+import com.paisa.service.RecommendationPrecomputeService;
+import com.paisa.service.RecurringTransactionService;
+import com.paisa.util.CsvWriter;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/admin")
+@QueryBudget(6)
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
 
     private final AdminService adminService;
+    private final ObjectMapper objectMapper;
+    private final MonthlyRollupService monthlyRollupService;
+    private final RecurringTransactionService recurringTransactionService;
+    private final BudgetAlertService budgetAlertService;
+    private final RecommendationPrecomputeService recommendationPrecomputeService;
+    private final PlatformStatsService platformStatsService;
+    private final LedgerService ledgerService;
+    private final BudgetTrackingService budgetTrackingService;
 
-    public AdminController(AdminService adminService) {
+    public AdminController(AdminService adminService,
+                           ObjectMapper objectMapper,
+                           MonthlyRollupService monthlyRollupService,
+                           RecurringTransactionService recurringTransactionService,
+                           BudgetAlertService budgetAlertService,
+                           RecommendationPrecomputeService recommendationPrecomputeService,
+                           PlatformStatsService platformStatsService,
+                           LedgerService ledgerService,
+                           BudgetTrackingService budgetTrackingService) {
         this.adminService = adminService;
+        this.objectMapper = objectMapper;
+        this.monthlyRollupService = monthlyRollupService;
+        this.recurringTransactionService = recurringTransactionService;
+        this.budgetAlertService = budgetAlertService;
+        this.recommendationPrecomputeService = recommendationPrecomputeService;
+        this.platformStatsService = platformStatsService;
+        this.ledgerService = ledgerService;
+        this.budgetTrackingService = budgetTrackingService;
     }
 
     @GetMapping("/users")
-    public ResponseEntity<List<AdminUserDto>> getAllUsers() {
-        return ResponseEntity.ok(adminService.getAllUsers());
+    public ResponseEntity<CursorPageDto<AdminUserDto>> getUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(adminService.getUserPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        return export(format, "users", adminService::streamUsers,
+                new Object[] {"id", "email", "name", "role", "createdAt"},
+                (AdminUserDto user) -> new Object[] {user.getId(), user.getEmail(), user.getName(), user.getRole(),
+                        user.getCreatedAt()});
     }
 
     @GetMapping("/accounts")
-    public ResponseEntity<List<AdminAccountDto>> getAllAccounts() {
-        return ResponseEntity.ok(adminService.getAllAccounts());
+    public ResponseEntity<CursorPageDto<AdminAccountDto>> getAccounts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) Account.AccountType type) {
+        try {
+            return ResponseEntity.ok(adminService.getAccountPage(userId, type, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/accounts/export")
+    public ResponseEntity<StreamingResponseBody> exportAccounts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) Account.AccountType type) {
+        return export(format, "accounts", consumer -> adminService.streamAccounts(userId, type, consumer),
+                new Object[] {"id", "name", "type", "balance", "isDefault", "userId", "userEmail",
+                        "createdAt", "updatedAt"},
+                (AdminAccountDto account) -> new Object[] {account.getId(), account.getName(), account.getType(),
+                        account.getBalance(), account.getIsDefault(), account.getUserId(),
+                        account.getUserEmail(), account.getCreatedAt(), account.getUpdatedAt()});
+    }
+
+    @PostMapping("/accounts/{id}/rebuild-balance")
+    public ResponseEntity<AccountBalanceDto> rebuildAccountBalance(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(ledgerService.rebuildBalance(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @GetMapping("/transactions")
-    public ResponseEntity<List<AdminTransactionDto>> getAllTransactions() {
-        return ResponseEntity.ok(adminService.getAllTransactions());
+    public ResponseEntity<CursorPageDto<AdminTransactionDto>> getTransactions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Transaction.TransactionType type) {
+        AdminTransactionFilter filter = new AdminTransactionFilter(userId, from, to, type);
+        try {
+            return ResponseEntity.ok(adminService.getTransactionPage(filter, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Transaction.TransactionType type) {
+        AdminTransactionFilter filter = new AdminTransactionFilter(userId, from, to, type);
+        return export(format, "transactions", consumer -> adminService.streamTransactions(filter, consumer),
+                new Object[] {"id", "type", "amount", "description", "date", "category", "isRecurring",
+                        "recurringInterval", "status", "accountId", "accountName", "userId", "userEmail",
+                        "createdAt", "updatedAt"},
+                (AdminTransactionDto transaction) -> new Object[] {transaction.getId(), transaction.getType(),
+                        transaction.getAmount(), transaction.getDescription(), transaction.getDate(),
+                        transaction.getCategory(), transaction.getIsRecurring(), transaction.getRecurringInterval(),
+                        transaction.getStatus(),
+                        transaction.getAccountId(), transaction.getAccountName(), transaction.getUserId(),
+                        transaction.getUserEmail(), transaction.getCreatedAt(), transaction.getUpdatedAt()});
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<PlatformStatsDto> getStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Transaction.TransactionType categoryType,
+            @RequestParam(defaultValue = "10") int topCategories) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        try {
+            return ResponseEntity.ok(platformStatsService.getStats(start, end, categoryType,
+                    Math.max(1, Math.min(topCategories, 100))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @QueryBudget(QueryBudget.UNBOUNDED)
+    @PostMapping("/stats/refresh")
+    public ResponseEntity<JobRunDto> refreshStats() {
+        JobRunDto run = platformStatsService.refresh();
+        return run != null ? ResponseEntity.ok(run) : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @GetMapping("/stats/last-run")
+    public ResponseEntity<JobRunDto> getLastStatsRun() {
+        JobRunDto run = platformStatsService.getLastRun();
+        return run != null ? ResponseEntity.ok(run) : ResponseEntity.noContent().build();
+    }
+
+    @QueryBudget(QueryBudget.UNBOUNDED)
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildRollups() {
+        return ResponseEntity.ok(Map.of("usersRebuilt", monthlyRollupService.rebuildAll()));
     }
-}
 
+    @QueryBudget(QueryBudget.UNBOUNDED)
+    @PostMapping("/budget-periods/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildBudgetPeriods() {
+        return ResponseEntity.ok(Map.of("usersRebuilt", budgetTrackingService.rebuildAll()));
+    }
+
+    @QueryBudget(QueryBudget.UNBOUNDED)
+    @PostMapping("/recurring/run")
+    public ResponseEntity<JobRunDto> runRecurringTransactions() {
+        JobRunDto run = recurringTransactionService.materializeDueTransactions();
+        return run != null ? ResponseEntity.ok(run) : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @GetMapping("/recurring/last-run")
+    public ResponseEntity<JobRunDto> getLastRecurringRun() {
+        JobRunDto run = recurringTransactionService.getLastRun();
+        return run != null ? ResponseEntity.ok(run) : ResponseEntity.noContent().build();
+    }
+
+    @QueryBudget(QueryBudget.UNBOUNDED)
+    @PostMapping("/budget-alerts/run")
+    public ResponseEntity<JobRunDto> runBudgetAlerts() {
+        JobRunDto run = budgetAlertService.sendMonthlyBudgetAlerts();
+        return run != null ? ResponseEntity.ok(run) : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @GetMapping("/budget-alerts/last-run")
+    public ResponseEntity<JobRunDto> getLastBudgetAlertRun() {
+        JobRunDto run = budgetAlertService.getLastRun();
+        return run != null ? ResponseEntity.ok(run) : ResponseEntity.noContent().build();
+    }
+
+    @QueryBudget(QueryBudget.UNBOUNDED)
+    @PostMapping("/ai-precompute/run")
+    public ResponseEntity<JobRunDto> runRecommendationPrecompute() {
+        JobRunDto run = recommendationPrecomputeService.precomputeRecommendations();
+        return run != null ? ResponseEntity.ok(run) : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @GetMapping("/ai-precompute/last-run")
+    public ResponseEntity<JobRunDto> getLastRecommendationPrecomputeRun() {
+        JobRunDto run = recommendationPrecomputeService.getLastRun();
+        return run != null ? ResponseEntity.ok(run) : ResponseEntity.noContent().build();
+    }
+
+    // Rows are written as the database cursor advances, so export size is not bounded by heap
+    private <T> ResponseEntity<StreamingResponseBody> export(String format, String name,
+                                                             Consumer<Consumer<T>> source,
+                                                             Object[] csvHeader, Function<T, Object[]> csvRow) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = outputStream -> {
+            if (csv) {
+                outputStream.write(CsvWriter.row(csvHeader).getBytes(StandardCharsets.UTF_8));
+            }
+            source.accept(row -> {
+                try {
+                    if (csv) {
+                        outputStream.write(CsvWriter.row(csvRow.apply(row)).getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        outputStream.write(objectMapper.writeValueAsBytes(row));
+                        outputStream.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+        if (csv) {
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + ".csv\"")
+                    .body(body);
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
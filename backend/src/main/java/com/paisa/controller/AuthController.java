@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/auth")
+@QueryBudget(4)
 @CrossOrigin(origins = "http://localhost:3000")
 public class AuthController {
     
@@ -2,6 +2,7 @@ package com.paisa.controller;
 
 import com.paisa.dto.BudgetDto;
 import com.paisa.service.BudgetService;
+import com.paisa.util.SecurityUtil;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -9,6 +10,7 @@ import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/budgets")
+@QueryBudget(3)
 @CrossOrigin(origins = "http://localhost:3000")
 public class BudgetController {
     
@@ -21,7 +23,7 @@ public class BudgetController {
     @PostMapping
     public ResponseEntity<BudgetDto> createOrUpdateBudget(@RequestBody BudgetDto budgetDto,
                                                          Authentication authentication) {
-        String userId = authentication.getName();
+        String userId = SecurityUtil.getUserId(authentication);
         try {
             BudgetDto budget = budgetService.createOrUpdateBudget(budgetDto, userId);
             return ResponseEntity.ok(budget);
@@ -32,7 +34,7 @@ public class BudgetController {
     
     @GetMapping
     public ResponseEntity<BudgetDto> getBudget(Authentication authentication) {
-        String userId = authentication.getName();
+        String userId = SecurityUtil.getUserId(authentication);
         try {
             BudgetDto budget = budgetService.getBudgetByUserId(userId);
             return ResponseEntity.ok(budget);
@@ -43,7 +45,7 @@ public class BudgetController {
     
     @DeleteMapping
     public ResponseEntity<Void> deleteBudget(Authentication authentication) {
-        String userId = authentication.getName();
+        String userId = SecurityUtil.getUserId(authentication);
         try {
             budgetService.deleteBudget(userId);
             return ResponseEntity.noContent().build();
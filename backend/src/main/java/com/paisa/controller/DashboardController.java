@@ -2,12 +2,14 @@ package com.paisa.controller;
 
 import com.paisa.dto.DashboardSummaryDto;
 import com.paisa.service.DashboardService;
+import com.paisa.util.SecurityUtil;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/dashboard")
+@QueryBudget(6)
 @CrossOrigin(origins = "http://localhost:3000")
 public class DashboardController {
     
@@ -19,7 +21,7 @@ public class DashboardController {
     
     @GetMapping
     public ResponseEntity<DashboardSummaryDto> getDashboardSummary(Authentication authentication) {
-        String userId = authentication.getName();
+        String userId = SecurityUtil.getUserId(authentication);
         DashboardSummaryDto summary = dashboardService.getDashboardSummary(userId);
         return ResponseEntity.ok(summary);
     }
@@ -0,0 +1,18 @@
+package com.paisa.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Most SQL statements one request to the endpoint may issue; on a controller it applies to every endpoint
+// without its own. Checked by QueryBudgetInterceptor.
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    // For admin job triggers, whose statement count grows with the data by design
+    int UNBOUNDED = Integer.MAX_VALUE;
+
+    int value();
+}
@@ -0,0 +1,107 @@
+package com.paisa.controller;
+
+import com.paisa.util.QueryCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Counts the SQL statements behind each request and reports endpoints that go over their @QueryBudget, which is
+// how a lazy association loaded once per row shows up. With query-budget.enforce the statement that crosses the
+// budget throws, so the request fails and a load or smoke run against the build fails with it.
+// Only the servlet thread is counted: queries in the security filters and in streamed or async bodies are not.
+@Component
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor, WebMvcConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int defaultBudget;
+    private final boolean enforce;
+
+    public QueryBudgetInterceptor(MeterRegistry meterRegistry,
+                                  @Value("${query-budget.default:20}") int defaultBudget,
+                                  @Value("${query-budget.enforce:false}") boolean enforce) {
+        this.meterRegistry = meterRegistry;
+        this.defaultBudget = defaultBudget;
+        this.enforce = enforce;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST && handler instanceof HandlerMethod method) {
+            QueryCounter.begin(endpoint(request), budget(method), enforce);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        report(request, handler);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        report(request, handler);
+    }
+
+    private void report(HttpServletRequest request, Object handler) {
+        int statements = QueryCounter.end();
+        if (statements < 0 || !(handler instanceof HandlerMethod method)) {
+            return;
+        }
+        String uri = uri(request);
+        DistributionSummary.builder("paisa.http.queries")
+                .description("SQL statements issued per request")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(meterRegistry)
+                .record(statements);
+
+        int budget = budget(method);
+        if (statements > budget) {
+            Counter.builder("paisa.http.query.budget.exceeded")
+                    .description("Requests that issued more SQL statements than their endpoint's budget")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("Query budget exceeded: {} {} ({}) issued {} statements, budget {}", request.getMethod(),
+                    request.getRequestURI(), method.getShortLogMessage(), statements, budget);
+        }
+    }
+
+    private int budget(HandlerMethod method) {
+        QueryBudget budget = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), QueryBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), QueryBudget.class);
+        }
+        return budget != null ? budget.value() : defaultBudget;
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        return request.getMethod() + " " + uri(request);
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+}
@@ -1,29 +1,53 @@
 package com.paisa.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paisa.dto.CursorPageDto;
+import com.paisa.dto.ImportResultDto;
+import com.paisa.dto.ImportRowErrorDto;
 import com.paisa.dto.TransactionDto;
+import com.paisa.dto.TransactionFilter;
+import com.paisa.entity.Transaction;
+import com.paisa.service.TransactionImportService;
 import com.paisa.service.TransactionService;
+import com.paisa.util.SecurityUtil;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/transactions")
+@QueryBudget(3)
 @CrossOrigin(origins = "http://localhost:3000")
 public class TransactionController {
     
     private final TransactionService transactionService;
+    private final TransactionImportService transactionImportService;
+    private final ObjectMapper objectMapper;
     
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+                                 TransactionImportService transactionImportService,
+                                 ObjectMapper objectMapper) {
         this.transactionService = transactionService;
+        this.transactionImportService = transactionImportService;
+        this.objectMapper = objectMapper;
     }
     
+    @QueryBudget(12)
     @PostMapping
     public ResponseEntity<TransactionDto> createTransaction(@RequestBody TransactionDto transactionDto,
                                                             Authentication authentication) {
-        String userId = authentication.getName();
+        String userId = SecurityUtil.getUserId(authentication);
         try {
             TransactionDto created = transactionService.createTransaction(transactionDto, userId);
             return ResponseEntity.status(HttpStatus.CREATED).body(created);
@@ -32,17 +56,107 @@ public class TransactionController {
         }
     }
     
+    @QueryBudget(12)
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportResultDto> importJson(InputStream body, Authentication authentication)
+            throws IOException {
+        String userId = SecurityUtil.getUserId(authentication);
+        try {
+            return ResponseEntity.ok(transactionImportService.importJson(body, userId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(rejectedImport(e));
+        }
+    }
+    
+    @QueryBudget(12)
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportResultDto> importCsv(InputStream body, Authentication authentication)
+            throws IOException {
+        String userId = SecurityUtil.getUserId(authentication);
+        try {
+            return ResponseEntity.ok(transactionImportService.importCsv(body, userId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(rejectedImport(e));
+        }
+    }
+    
     @GetMapping
     public ResponseEntity<List<TransactionDto>> getUserTransactions(Authentication authentication) {
-        String userId = authentication.getName();
+        String userId = SecurityUtil.getUserId(authentication);
         List<TransactionDto> transactions = transactionService.getUserTransactions(userId);
         return ResponseEntity.ok(transactions);
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDto<TransactionDto>> getTransactionPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Transaction.TransactionType type,
+            @RequestParam(required = false) String category,
+            Authentication authentication) {
+        String userId = SecurityUtil.getUserId(authentication);
+        TransactionFilter filter = new TransactionFilter(accountId, from, to, type, category, null, null, null);
+        try {
+            return ResponseEntity.ok(transactionService.getTransactionPage(userId, filter, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // q matches description tokens by substring (every word must match); the other filters narrow the hits
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageDto<TransactionDto>> searchTransactions(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Transaction.TransactionType type,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            Authentication authentication) {
+        String userId = SecurityUtil.getUserId(authentication);
+        TransactionFilter filter = new TransactionFilter(accountId, from, to, type, category, minAmount, maxAmount, q);
+        try {
+            return ResponseEntity.ok(transactionService.getTransactionPage(userId, filter, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTransactions(
+            @RequestParam(required = false) String accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Transaction.TransactionType type,
+            @RequestParam(required = false) String category,
+            Authentication authentication) {
+        String userId = SecurityUtil.getUserId(authentication);
+        TransactionFilter filter = new TransactionFilter(accountId, from, to, type, category, null, null, null);
+        StreamingResponseBody body = outputStream -> {
+            transactionService.streamTransactions(userId, filter, transaction -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(transaction));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
     @GetMapping("/account/{accountId}")
     public ResponseEntity<List<TransactionDto>> getAccountTransactions(@PathVariable String accountId,
                                                                       Authentication authentication) {
-        String userId = authentication.getName();
+        String userId = SecurityUtil.getUserId(authentication);
         try {
             List<TransactionDto> transactions = transactionService.getAccountTransactions(accountId, userId);
             return ResponseEntity.ok(transactions);
@@ -51,10 +165,32 @@ public class TransactionController {
         }
     }
     
+    @GetMapping("/account/{accountId}/page")
+    public ResponseEntity<CursorPageDto<TransactionDto>> getAccountTransactionPage(
+            @PathVariable String accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Transaction.TransactionType type,
+            @RequestParam(required = false) String category,
+            Authentication authentication) {
+        String userId = SecurityUtil.getUserId(authentication);
+        TransactionFilter filter = new TransactionFilter(null, from, to, type, category, null, null, null);
+        try {
+            return ResponseEntity.ok(transactionService.getAccountTransactionPage(accountId, userId, filter,
+                    cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<TransactionDto> getTransaction(@PathVariable String id,
                                                         Authentication authentication) {
-        String userId = authentication.getName();
+        String userId = SecurityUtil.getUserId(authentication);
         try {
             TransactionDto transaction = transactionService.getTransactionById(id, userId);
             return ResponseEntity.ok(transaction);
@@ -63,11 +199,12 @@ public class TransactionController {
         }
     }
     
+    @QueryBudget(14)
     @PutMapping("/{id}")
     public ResponseEntity<TransactionDto> updateTransaction(@PathVariable String id,
                                                            @RequestBody TransactionDto transactionDto,
                                                            Authentication authentication) {
-        String userId = authentication.getName();
+        String userId = SecurityUtil.getUserId(authentication);
         try {
             TransactionDto updated = transactionService.updateTransaction(id, transactionDto, userId);
             return ResponseEntity.ok(updated);
@@ -76,10 +213,11 @@ public class TransactionController {
         }
     }
     
+    @QueryBudget(12)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTransaction(@PathVariable String id,
                                                 Authentication authentication) {
-        String userId = authentication.getName();
+        String userId = SecurityUtil.getUserId(authentication);
         try {
             transactionService.deleteTransaction(id, userId);
             return ResponseEntity.noContent().build();
@@ -87,5 +225,11 @@ public class TransactionController {
             return ResponseEntity.notFound().build();
         }
     }
+    
+    // Row 0 stands for the body as a whole: nothing was imported
+    private static ImportResultDto rejectedImport(IllegalArgumentException e) {
+        ImportResultDto result = new ImportResultDto();
+        result.getErrors().add(new ImportRowErrorDto(0, e.getMessage()));
+        return result;
+    }
 }
-
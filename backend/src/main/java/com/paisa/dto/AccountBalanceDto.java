@@ -0,0 +1,19 @@
+package com.paisa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceDto {
+    private String accountId;
+    private LocalDateTime asOf;
+    private BigDecimal balance;
+    private long sequence;
+    private long replayedEntries;
+}
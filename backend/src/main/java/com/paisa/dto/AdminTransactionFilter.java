@@ -0,0 +1,18 @@
+package com.paisa.dto;
+
+import com.paisa.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminTransactionFilter {
+    private String userId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Transaction.TransactionType type;
+}
@@ -0,0 +1,34 @@
+package com.paisa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSeriesDto {
+    private String accountId;
+    private LocalDate from;
+    private LocalDate to;
+    private Granularity granularity;
+    private long version;
+    private List<Point> points;
+
+    // Closing balance of the bucket starting at date (the last bucket closes at to)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+        private LocalDate date;
+        private BigDecimal balance;
+    }
+
+    public enum Granularity {
+        DAY, WEEK, MONTH
+    }
+}
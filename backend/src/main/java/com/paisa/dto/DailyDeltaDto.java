@@ -0,0 +1,17 @@
+package com.paisa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Net balance movement of one account on one day
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyDeltaDto {
+    private LocalDate day;
+    private BigDecimal delta;
+}
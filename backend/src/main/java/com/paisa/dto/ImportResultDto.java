@@ -0,0 +1,19 @@
+package com.paisa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDto {
+    private int totalRows;
+    private int importedRows;
+    private int failedRows;
+    private long durationMs;
+    private List<ImportRowErrorDto> errors = new ArrayList<>();
+}
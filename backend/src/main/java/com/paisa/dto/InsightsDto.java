@@ -0,0 +1,21 @@
+package com.paisa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InsightsDto {
+    private List<String> insights;
+    private List<String> recommendations;
+    private String summary;
+    private AIStatus aiStatus;
+    
+    public enum AIStatus {
+        READY, PENDING, UNAVAILABLE
+    }
+}
@@ -0,0 +1,21 @@
+package com.paisa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobRunDto {
+    private String job;
+    private LocalDateTime startedAt;
+    private long durationMs;
+    private long itemsScanned;
+    private long itemsProcessed;
+    private long itemsWritten;
+    private long failures;
+    private double itemsPerSecond;
+}
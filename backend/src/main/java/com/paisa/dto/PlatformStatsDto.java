@@ -0,0 +1,56 @@
+package com.paisa.dto;
+
+import com.paisa.entity.Account;
+import com.paisa.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlatformStatsDto {
+    private LocalDate from;
+    private LocalDate to;
+    private LocalDateTime refreshedAt;
+    private List<DailyStats> daily;
+    private List<CategoryStats> topCategories;
+    private List<BalanceBucket> balanceDistribution;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyStats {
+        private LocalDate date;
+        private long activeUsers;
+        private long incomeCount;
+        private BigDecimal incomeVolume;
+        private long expenseCount;
+        private BigDecimal expenseVolume;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryStats {
+        private Transaction.TransactionType type;
+        private String category;
+        private long transactionCount;
+        private BigDecimal volume;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BalanceBucket {
+        private Account.AccountType accountType;
+        private String bucket;
+        private long accountCount;
+        private BigDecimal totalBalance;
+    }
+}
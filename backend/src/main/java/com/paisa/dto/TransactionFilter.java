@@ -0,0 +1,23 @@
+package com.paisa.dto;
+
+import com.paisa.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionFilter {
+    private String accountId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Transaction.TransactionType type;
+    private String category;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private String query;
+}
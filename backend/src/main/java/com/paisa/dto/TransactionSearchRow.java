@@ -0,0 +1,23 @@
+package com.paisa.dto;
+
+import com.paisa.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The columns the in-memory search index keeps per transaction
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionSearchRow {
+    private String id;
+    private String description;
+    private LocalDateTime date;
+    private BigDecimal amount;
+    private String accountId;
+    private String category;
+    private Transaction.TransactionType type;
+}
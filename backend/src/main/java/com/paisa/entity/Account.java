@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", indexes = {
+    @Index(name = "idx_accounts_created", columnList = "created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,7 +29,8 @@ public class Account {
     @Enumerated(EnumType.STRING)
     private AccountType type;
     
-    @Column(nullable = false, precision = 19, scale = 2)
+    // Moved only by the ledger's atomic deltas, never by saving a possibly stale entity
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
     private BigDecimal balance = BigDecimal.ZERO;
     
     @Column(nullable = false)
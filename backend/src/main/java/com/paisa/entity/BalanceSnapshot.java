@@ -0,0 +1,36 @@
+package com.paisa.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Account balance after the ledger entry with the same sequence
+@Entity
+@Table(name = "balance_snapshots", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_balance_snapshot_sequence", columnNames = {"account_id", "sequence"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    @Column(name = "account_id", nullable = false)
+    private String accountId;
+    
+    @Column(nullable = false)
+    private Long sequence;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+    
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+}
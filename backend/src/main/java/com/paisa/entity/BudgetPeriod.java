@@ -0,0 +1,55 @@
+package com.paisa.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "budget_periods", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_budget_period_user_period", columnNames = {"user_id", "period_start"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetPeriod {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(nullable = false)
+    private LocalDate periodStart;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal spent = BigDecimal.ZERO;
+    
+    // Highest threshold percentage already announced for this period
+    @Column(nullable = false)
+    private Integer alertedThreshold = 0;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,57 @@
+package com.paisa.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "job_checkpoints", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_job_checkpoint_partition",
+                      columnNames = {"job_name", "run_key", "partition_key"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobCheckpoint {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    @Column(nullable = false)
+    private String jobName;
+    
+    @Column(nullable = false)
+    private String runKey;
+    
+    @Column(nullable = false)
+    private String partitionKey;
+    
+    private String lastProcessedId;
+    
+    @Column(nullable = false)
+    private Long itemsProcessed = 0L;
+    
+    @Column(nullable = false)
+    private Boolean completed = false;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,46 @@
+package com.paisa.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Append-only record of every change to an account balance, numbered per account
+@Entity
+@Table(name = "ledger_entries", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_ledger_entry_sequence", columnNames = {"account_id", "sequence"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    @Column(name = "account_id", nullable = false)
+    private String accountId;
+    
+    @Column(nullable = false)
+    private Long sequence;
+    
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Kind kind;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+    
+    private String transactionId;
+    
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+    
+    public enum Kind {
+        OPENING, TRANSACTION, IMPORT, RECURRING
+    }
+}
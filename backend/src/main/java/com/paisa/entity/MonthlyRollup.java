@@ -0,0 +1,62 @@
+package com.paisa.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "monthly_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_rollup_user_period_type_category",
+                      columnNames = {"user_id", "period_start", "type", "category"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(nullable = false)
+    private LocalDate periodStart;
+    
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Transaction.TransactionType type;
+    
+    @Column(nullable = false)
+    private String category;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount = BigDecimal.ZERO;
+    
+    @Column(nullable = false)
+    private Long transactionCount = 0L;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,66 @@
+package com.paisa.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "platform_stats", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_platform_stat", columnNames = {"metric", "stat_date", "dimension", "label"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlatformStat {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Metric metric;
+    
+    @Column(nullable = false)
+    private LocalDate statDate;
+    
+    // Transaction type for TRANSACTIONS, account type for ACCOUNT_BALANCES, empty for ACTIVE_USERS
+    @Column(nullable = false)
+    private String dimension = "";
+    
+    // Category for TRANSACTIONS, balance bucket for ACCOUNT_BALANCES, empty for ACTIVE_USERS
+    @Column(nullable = false)
+    private String label = "";
+    
+    @Column(nullable = false)
+    private Long itemCount = 0L;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount = BigDecimal.ZERO;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public enum Metric {
+        TRANSACTIONS, ACTIVE_USERS, ACCOUNT_BALANCES
+    }
+}
@@ -0,0 +1,24 @@
+package com.paisa.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Days whose statistics lost rows the updated_at watermark cannot see: deletes and moves to another day
+@Entity
+@Table(name = "stats_dirty_days")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsDirtyDay {
+    
+    @Id
+    private LocalDate statDate;
+    
+    @Column(nullable = false)
+    private LocalDateTime markedAt;
+}
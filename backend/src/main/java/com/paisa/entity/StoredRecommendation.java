@@ -0,0 +1,57 @@
+package com.paisa.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "stored_recommendations", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_stored_recommendation_user", columnNames = {"user_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredRecommendation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    // Digest of the spend profile the recommendations were generated from
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+    
+    // JSON array of recommendation strings
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String recommendations;
+    
+    @Column(columnDefinition = "TEXT")
+    private String summary;
+    
+    @Column(nullable = false)
+    private LocalDateTime generatedAt;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
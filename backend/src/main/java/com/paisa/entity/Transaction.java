@@ -10,8 +10,15 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "transactions", indexes = {
-    @Index(name = "idx_user_id", columnList = "user_id"),
-    @Index(name = "idx_account_id", columnList = "account_id")
+    @Index(name = "idx_transactions_user_date", columnList = "user_id, date, id"),
+    @Index(name = "idx_transactions_account_date", columnList = "account_id, date, id"),
+    @Index(name = "idx_transactions_user_type_date", columnList = "user_id, type, date, id"),
+    @Index(name = "idx_transactions_user_category_date", columnList = "user_id, category, date, id"),
+    @Index(name = "idx_transactions_recurring_due", columnList = "is_recurring, next_recurring_date, id"),
+    @Index(name = "idx_transactions_date", columnList = "date"),
+    @Index(name = "idx_transactions_updated", columnList = "updated_at, id")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_transactions_recurring_occurrence", columnNames = {"recurring_source_id", "date"})
 })
 @Data
 @NoArgsConstructor
@@ -49,6 +56,9 @@ public class Transaction {
     
     private LocalDateTime lastProcessed;
     
+    @Column(name = "recurring_source_id")
+    private String recurringSourceId;
+    
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
     private TransactionStatus status = TransactionStatus.COMPLETED;
@@ -78,6 +88,14 @@ public class Transaction {
         updatedAt = LocalDateTime.now();
     }
     
+    public void scheduleNextOccurrence() {
+        if (Boolean.TRUE.equals(isRecurring) && recurringInterval != null && date != null) {
+            nextRecurringDate = recurringInterval.advance(date);
+        } else {
+            nextRecurringDate = null;
+        }
+    }
+    
     public enum TransactionType {
         INCOME, EXPENSE
     }
@@ -87,7 +105,16 @@ public class Transaction {
     }
     
     public enum RecurringInterval {
-        DAILY, WEEKLY, MONTHLY, YEARLY
+        DAILY, WEEKLY, MONTHLY, YEARLY;
+        
+        public LocalDateTime advance(LocalDateTime from) {
+            return switch (this) {
+                case DAILY -> from.plusDays(1);
+                case WEEKLY -> from.plusWeeks(1);
+                case MONTHLY -> from.plusMonths(1);
+                case YEARLY -> from.plusYears(1);
+            };
+        }
     }
 }
 
@@ -9,7 +9,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_created", columnList = "created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
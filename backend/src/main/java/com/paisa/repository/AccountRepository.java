@@ -1,13 +1,23 @@
 package com.paisa.repository;
 
+import com.paisa.dto.AdminAccountDto;
 import com.paisa.entity.Account;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, String> {
@@ -22,5 +32,55 @@ public interface AccountRepository extends JpaRepository<Account, String> {
     
     @Query("SELECT a FROM Account a WHERE a.user.id = :userId AND a.isDefault = true")
     Optional<Account> findByUserIdAndIsDefaultTrue(@Param("userId") String userId);
+    
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance + :delta, a.updatedAt = CURRENT_TIMESTAMP WHERE a.id = :id")
+    int applyBalanceDelta(@Param("id") String id, @Param("delta") BigDecimal delta);
+    
+    @Query("SELECT a.balance FROM Account a WHERE a.id = :id")
+    Optional<BigDecimal> findBalanceById(@Param("id") String id);
+    
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = :balance, a.updatedAt = CURRENT_TIMESTAMP WHERE a.id = :id")
+    int setBalance(@Param("id") String id, @Param("balance") BigDecimal balance);
+    
+    @Query("SELECT a.type AS type, COUNT(a) AS accountCount, SUM(a.balance) AS total FROM Account a " +
+           "WHERE (:lower IS NULL OR a.balance >= :lower) AND (:upper IS NULL OR a.balance < :upper) " +
+           "GROUP BY a.type")
+    List<BalanceTotal> sumBalancesBetween(
+        @Param("lower") BigDecimal lower,
+        @Param("upper") BigDecimal upper
+    );
+    
+    @Query("SELECT new com.paisa.dto.AdminAccountDto(a.id, a.name, a.type, a.balance, a.isDefault, " +
+           "u.id, u.email, a.createdAt, a.updatedAt) " +
+           "FROM Account a LEFT JOIN a.user u " +
+           "WHERE (:userId IS NULL OR u.id = :userId) AND (:type IS NULL OR a.type = :type) " +
+           "AND (:cursorDate IS NULL OR a.createdAt < :cursorDate " +
+           "OR (a.createdAt = :cursorDate AND a.id < :cursorId)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AdminAccountDto> findAdminPage(
+        @Param("userId") String userId,
+        @Param("type") Account.AccountType type,
+        @Param("cursorDate") LocalDateTime cursorDate,
+        @Param("cursorId") String cursorId,
+        Pageable pageable
+    );
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE))
+    @Query("SELECT new com.paisa.dto.AdminAccountDto(a.id, a.name, a.type, a.balance, a.isDefault, " +
+           "u.id, u.email, a.createdAt, a.updatedAt) " +
+           "FROM Account a LEFT JOIN a.user u " +
+           "WHERE (:userId IS NULL OR u.id = :userId) AND (:type IS NULL OR a.type = :type) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    Stream<AdminAccountDto> streamAdmin(
+        @Param("userId") String userId,
+        @Param("type") Account.AccountType type
+    );
+    
+    interface BalanceTotal {
+        Account.AccountType getType();
+        Long getAccountCount();
+        BigDecimal getTotal();
+    }
 }
-
@@ -0,0 +1,23 @@
+package com.paisa.repository;
+
+import com.paisa.entity.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, String> {
+    Optional<BalanceSnapshot> findFirstByAccountIdAndTakenAtLessThanEqualOrderBySequenceDesc(
+        String accountId,
+        LocalDateTime asOf
+    );
+    
+    @Modifying
+    @Query("DELETE FROM BalanceSnapshot s WHERE s.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") String accountId);
+}
@@ -0,0 +1,70 @@
+package com.paisa.repository;
+
+import com.paisa.entity.BudgetPeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface BudgetPeriodRepository extends JpaRepository<BudgetPeriod, String> {
+    // Upsert so that concurrent first writes of a period cannot race on the unique key
+    @Modifying
+    @Query(value = "INSERT INTO budget_periods (id, user_id, period_start, spent, alerted_threshold, " +
+                   "created_at, updated_at) VALUES (:id, :userId, :periodStart, :delta, 0, " +
+                   "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+                   "ON DUPLICATE KEY UPDATE spent = spent + :delta, updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int applyDelta(
+        @Param("id") String id,
+        @Param("userId") String userId,
+        @Param("periodStart") LocalDate periodStart,
+        @Param("delta") BigDecimal delta
+    );
+    
+    // Rebuild: zero the user's periods first so months without expenses any more end up at 0, then set each
+    // month from raw transactions; alerted_threshold is kept so a rebuild never re-sends an alert
+    @Modifying
+    @Query("UPDATE BudgetPeriod p SET p.spent = 0, p.updatedAt = CURRENT_TIMESTAMP WHERE p.user.id = :userId")
+    int resetSpent(@Param("userId") String userId);
+    
+    @Modifying
+    @Query(value = "INSERT INTO budget_periods (id, user_id, period_start, spent, alerted_threshold, " +
+                   "created_at, updated_at) VALUES (:id, :userId, :periodStart, :spent, 0, " +
+                   "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+                   "ON DUPLICATE KEY UPDATE spent = :spent, updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int setSpent(
+        @Param("id") String id,
+        @Param("userId") String userId,
+        @Param("periodStart") LocalDate periodStart,
+        @Param("spent") BigDecimal spent
+    );
+    
+    @Query("SELECT p.id AS periodId, p.spent AS spent, p.alertedThreshold AS alertedThreshold, " +
+           "b.id AS budgetId, b.amount AS budgetAmount " +
+           "FROM BudgetPeriod p JOIN Budget b ON b.user.id = p.user.id " +
+           "WHERE p.user.id = :userId AND p.periodStart = :periodStart")
+    Optional<PeriodStatus> findStatus(
+        @Param("userId") String userId,
+        @Param("periodStart") LocalDate periodStart
+    );
+    
+    @Modifying
+    @Query("UPDATE BudgetPeriod p SET p.alertedThreshold = :threshold, p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.id = :id AND p.alertedThreshold < :threshold")
+    int claimThreshold(@Param("id") String id, @Param("threshold") int threshold);
+    
+    interface PeriodStatus {
+        String getPeriodId();
+        BigDecimal getSpent();
+        Integer getAlertedThreshold();
+        String getBudgetId();
+        BigDecimal getBudgetAmount();
+    }
+}
@@ -1,13 +1,46 @@
 package com.paisa.repository;
 
 import com.paisa.entity.Budget;
+import com.paisa.entity.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BudgetRepository extends JpaRepository<Budget, String> {
     Optional<Budget> findByUserId(String userId);
+    
+    @Query("SELECT b.id AS budgetId, b.user.id AS userId, b.amount AS amount, SUM(t.amount) AS spent " +
+           "FROM Budget b LEFT JOIN Transaction t ON t.user.id = b.user.id AND t.type = :type " +
+           "AND t.date >= :start AND t.date < :end " +
+           "WHERE b.id > :afterId AND (:upperId IS NULL OR b.id < :upperId) " +
+           "GROUP BY b.id, b.user.id, b.amount ORDER BY b.id")
+    List<BudgetSpend> findSpendInRange(
+        @Param("type") Transaction.TransactionType type,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end,
+        @Param("afterId") String afterId,
+        @Param("upperId") String upperId,
+        Pageable pageable
+    );
+    
+    @Modifying
+    @Query("UPDATE Budget b SET b.lastAlertSent = :sentAt, b.updatedAt = CURRENT_TIMESTAMP WHERE b.id IN :ids")
+    int markAlertSent(@Param("ids") Collection<String> ids, @Param("sentAt") LocalDateTime sentAt);
+    
+    interface BudgetSpend {
+        String getBudgetId();
+        String getUserId();
+        BigDecimal getAmount();
+        BigDecimal getSpent();
+    }
 }
-
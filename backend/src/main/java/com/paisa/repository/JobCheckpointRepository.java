@@ -0,0 +1,26 @@
+package com.paisa.repository;
+
+import com.paisa.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+    List<JobCheckpoint> findByJobNameAndRunKey(String jobName, String runKey);
+    
+    @Modifying
+    @Query("UPDATE JobCheckpoint c SET c.lastProcessedId = :lastProcessedId, " +
+           "c.itemsProcessed = c.itemsProcessed + :processed, c.completed = :completed, " +
+           "c.updatedAt = CURRENT_TIMESTAMP WHERE c.id = :id")
+    int advance(
+        @Param("id") String id,
+        @Param("lastProcessedId") String lastProcessedId,
+        @Param("processed") long processed,
+        @Param("completed") boolean completed
+    );
+}
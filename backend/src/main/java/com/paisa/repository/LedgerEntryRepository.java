@@ -0,0 +1,37 @@
+package com.paisa.repository;
+
+import com.paisa.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, String> {
+    @Query("SELECT COALESCE(MAX(e.sequence), 0) FROM LedgerEntry e WHERE e.accountId = :accountId")
+    long findLastSequence(@Param("accountId") String accountId);
+    
+    // Entries after a snapshot; bounded by the snapshot interval because the next snapshot is newer than asOf
+    @Query("SELECT COALESCE(SUM(e.amount), 0) AS total, COUNT(e) AS entryCount, MAX(e.sequence) AS lastSequence " +
+           "FROM LedgerEntry e WHERE e.accountId = :accountId AND e.sequence > :afterSequence " +
+           "AND e.recordedAt <= :asOf")
+    Tail sumTail(
+        @Param("accountId") String accountId,
+        @Param("afterSequence") long afterSequence,
+        @Param("asOf") LocalDateTime asOf
+    );
+    
+    @Modifying
+    @Query("DELETE FROM LedgerEntry e WHERE e.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") String accountId);
+    
+    interface Tail {
+        BigDecimal getTotal();
+        long getEntryCount();
+        Long getLastSequence();
+    }
+}
@@ -0,0 +1,43 @@
+package com.paisa.repository;
+
+import com.paisa.entity.MonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, String> {
+    @Query("SELECT r FROM MonthlyRollup r WHERE r.user.id = :userId AND r.periodStart = :periodStart")
+    List<MonthlyRollup> findByUserIdAndPeriodStart(
+        @Param("userId") String userId,
+        @Param("periodStart") LocalDate periodStart
+    );
+    
+    // Upsert so that concurrent first writes of a rollup cannot race on the unique key
+    @Modifying
+    @Query(value = "INSERT INTO monthly_rollups (id, user_id, period_start, type, category, amount, " +
+                   "transaction_count, created_at, updated_at) VALUES (:id, :userId, :periodStart, :type, " +
+                   ":category, :amount, :count, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+                   "ON DUPLICATE KEY UPDATE amount = amount + :amount, " +
+                   "transaction_count = transaction_count + :count, updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int applyDelta(
+        @Param("id") String id,
+        @Param("userId") String userId,
+        @Param("periodStart") LocalDate periodStart,
+        @Param("type") String type,
+        @Param("category") String category,
+        @Param("amount") BigDecimal amount,
+        @Param("count") long count
+    );
+    
+    @Modifying
+    @Query("DELETE FROM MonthlyRollup r WHERE r.user.id = :userId")
+    int deleteByUserId(@Param("userId") String userId);
+}
@@ -0,0 +1,68 @@
+package com.paisa.repository;
+
+import com.paisa.entity.PlatformStat;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PlatformStatRepository extends JpaRepository<PlatformStat, String> {
+    @Modifying
+    @Query("DELETE FROM PlatformStat s WHERE s.statDate = :statDate AND s.metric IN :metrics")
+    int deleteDay(
+        @Param("statDate") LocalDate statDate,
+        @Param("metrics") Collection<PlatformStat.Metric> metrics
+    );
+    
+    @Modifying
+    @Query("DELETE FROM PlatformStat s WHERE s.metric = :metric")
+    int deleteMetric(@Param("metric") PlatformStat.Metric metric);
+    
+    @Query("SELECT s.statDate AS statDate, s.metric AS metric, s.dimension AS dimension, " +
+           "SUM(s.itemCount) AS itemCount, SUM(s.amount) AS amount " +
+           "FROM PlatformStat s WHERE s.metric IN :metrics AND s.statDate >= :from AND s.statDate <= :to " +
+           "GROUP BY s.statDate, s.metric, s.dimension")
+    List<DailyTotal> sumByDay(
+        @Param("metrics") Collection<PlatformStat.Metric> metrics,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
+    
+    @Query("SELECT s.dimension AS dimension, s.label AS label, SUM(s.itemCount) AS itemCount, " +
+           "SUM(s.amount) AS amount " +
+           "FROM PlatformStat s WHERE s.metric = 'TRANSACTIONS' " +
+           "AND s.statDate >= :from AND s.statDate <= :to AND (:type IS NULL OR s.dimension = :type) " +
+           "GROUP BY s.dimension, s.label ORDER BY SUM(s.amount) DESC")
+    List<LabelTotal> findTopCategories(
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to,
+        @Param("type") String type,
+        Pageable pageable
+    );
+    
+    @Query("SELECT s FROM PlatformStat s WHERE s.metric = :metric ORDER BY s.dimension, s.amount")
+    List<PlatformStat> findByMetric(@Param("metric") PlatformStat.Metric metric);
+    
+    interface DailyTotal {
+        LocalDate getStatDate();
+        PlatformStat.Metric getMetric();
+        String getDimension();
+        Long getItemCount();
+        BigDecimal getAmount();
+    }
+    
+    interface LabelTotal {
+        String getDimension();
+        String getLabel();
+        Long getItemCount();
+        BigDecimal getAmount();
+    }
+}
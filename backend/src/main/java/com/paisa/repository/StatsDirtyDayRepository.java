@@ -0,0 +1,37 @@
+package com.paisa.repository;
+
+import com.paisa.entity.StatsDirtyDay;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StatsDirtyDayRepository extends JpaRepository<StatsDirtyDay, LocalDate> {
+    @Modifying
+    @Query(value = "INSERT INTO stats_dirty_days (stat_date, marked_at) VALUES (:statDate, :markedAt) " +
+                   "ON DUPLICATE KEY UPDATE marked_at = :markedAt",
+           nativeQuery = true)
+    int mark(
+        @Param("statDate") LocalDate statDate,
+        @Param("markedAt") LocalDateTime markedAt
+    );
+    
+    @Query("SELECT d.statDate FROM StatsDirtyDay d WHERE d.markedAt <= :cutoff ORDER BY d.statDate")
+    List<LocalDate> findMarkedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    // A day marked again after the cutoff keeps its row for the next run
+    @Modifying
+    @Query("DELETE FROM StatsDirtyDay d WHERE d.statDate IN :statDates AND d.markedAt <= :cutoff")
+    int clear(
+        @Param("statDates") Collection<LocalDate> statDates,
+        @Param("cutoff") LocalDateTime cutoff
+    );
+}
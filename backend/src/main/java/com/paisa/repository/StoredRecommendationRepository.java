@@ -0,0 +1,51 @@
+package com.paisa.repository;
+
+import com.paisa.entity.StoredRecommendation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredRecommendationRepository extends JpaRepository<StoredRecommendation, String> {
+    @Query("SELECT r.user.id AS userId, r.fingerprint AS fingerprint, r.recommendations AS recommendations, " +
+           "r.summary AS summary, r.generatedAt AS generatedAt " +
+           "FROM StoredRecommendation r WHERE r.user.id = :userId")
+    Optional<StoredView> findView(@Param("userId") String userId);
+    
+    @Query("SELECT r.user.id AS userId, r.fingerprint AS fingerprint, r.recommendations AS recommendations, " +
+           "r.summary AS summary, r.generatedAt AS generatedAt " +
+           "FROM StoredRecommendation r WHERE r.user.id IN :userIds")
+    List<StoredView> findViews(@Param("userIds") Collection<String> userIds);
+    
+    // Upsert so the nightly job and an on-demand refresh for the same user cannot race on the unique key
+    @Modifying
+    @Query(value = "INSERT INTO stored_recommendations (id, user_id, fingerprint, recommendations, summary, " +
+                   "generated_at, created_at, updated_at) VALUES (:id, :userId, :fingerprint, :recommendations, " +
+                   ":summary, :generatedAt, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+                   "ON DUPLICATE KEY UPDATE fingerprint = :fingerprint, recommendations = :recommendations, " +
+                   "summary = :summary, generated_at = :generatedAt, updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int upsert(
+        @Param("id") String id,
+        @Param("userId") String userId,
+        @Param("fingerprint") String fingerprint,
+        @Param("recommendations") String recommendations,
+        @Param("summary") String summary,
+        @Param("generatedAt") LocalDateTime generatedAt
+    );
+    
+    interface StoredView {
+        String getUserId();
+        String getFingerprint();
+        String getRecommendations();
+        String getSummary();
+        LocalDateTime getGeneratedAt();
+    }
+}
@@ -0,0 +1,13 @@
+package com.paisa.repository;
+
+// Fetch size for the Stream queries behind exports and search index builds. On MySQL the datasource URL sets
+// useCursorFetch=true, so Connector/J reads the result through a server-side cursor this many rows at a time
+// instead of buffering all of it; without that flag a positive fetch size is ignored. Other databases (H2 in
+// tests and local runs) take the value as a plain fetch size.
+final class StreamingHints {
+
+    static final String FETCH_SIZE = "1000";
+
+    private StreamingHints() {
+    }
+}
@@ -1,42 +1,263 @@
 package com.paisa.repository;
 
+import com.paisa.dto.AdminTransactionDto;
+import com.paisa.dto.DailyDeltaDto;
+import com.paisa.dto.TransactionSearchRow;
 import com.paisa.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, String> {
-    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId ORDER BY t.date DESC")
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.account WHERE t.user.id = :userId ORDER BY t.date DESC")
     List<Transaction> findByUserIdOrderByDateDesc(@Param("userId") String userId);
     
     List<Transaction> findByAccountIdOrderByDateDesc(String accountId);
     
-    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.date BETWEEN :start AND :end")
-    List<Transaction> findByUserIdAndDateBetween(
-        @Param("userId") String userId, 
-        @Param("start") LocalDateTime start, 
+    @Query("SELECT t.type AS type, SUM(t.amount) AS total, COUNT(t) AS transactionCount " +
+           "FROM Transaction t WHERE t.user.id = :userId AND t.date >= :start AND t.date < :end " +
+           "GROUP BY t.type")
+    List<TypeTotal> sumByType(
+        @Param("userId") String userId,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+    
+    @Query("SELECT t.category AS category, SUM(t.amount) AS total, COUNT(t) AS transactionCount " +
+           "FROM Transaction t WHERE t.user.id = :userId AND t.type = :type " +
+           "AND t.date >= :start AND t.date < :end " +
+           "GROUP BY t.category")
+    List<CategoryTotal> sumByCategory(
+        @Param("userId") String userId,
+        @Param("type") Transaction.TransactionType type,
+        @Param("start") LocalDateTime start,
         @Param("end") LocalDateTime end
     );
     
-    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.type = 'EXPENSE' " +
-           "AND t.date >= :startDate AND t.date <= :endDate")
-    List<Transaction> findExpensesByUserIdAndDateRange(
+    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.user.id = :userId AND t.type = 'EXPENSE' " +
+           "AND (t.isRecurring = true OR t.recurringSourceId IS NOT NULL) " +
+           "AND t.date >= :start AND t.date < :end")
+    BigDecimal sumRecurringExpenses(
+        @Param("userId") String userId,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+    
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.account WHERE t.user.id = :userId " +
+           "AND (:accountId IS NULL OR t.account.id = :accountId) " +
+           "AND (:from IS NULL OR t.date >= :from) AND (:to IS NULL OR t.date <= :to) " +
+           "AND (:type IS NULL OR t.type = :type) AND (:category IS NULL OR t.category = :category) " +
+           "AND (:minAmount IS NULL OR t.amount >= :minAmount) AND (:maxAmount IS NULL OR t.amount <= :maxAmount) " +
+           "AND (:cursorDate IS NULL OR t.date < :cursorDate OR (t.date = :cursorDate AND t.id < :cursorId)) " +
+           "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPage(
+        @Param("userId") String userId,
+        @Param("accountId") String accountId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("type") Transaction.TransactionType type,
+        @Param("category") String category,
+        @Param("minAmount") BigDecimal minAmount,
+        @Param("maxAmount") BigDecimal maxAmount,
+        @Param("cursorDate") LocalDateTime cursorDate,
+        @Param("cursorId") String cursorId,
+        Pageable pageable
+    );
+    
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.account WHERE t.user.id = :userId " +
+           "AND (:accountId IS NULL OR t.account.id = :accountId) " +
+           "AND (:from IS NULL OR t.date >= :from) AND (:to IS NULL OR t.date <= :to) " +
+           "AND (:type IS NULL OR t.type = :type) AND (:category IS NULL OR t.category = :category) " +
+           "AND (:minAmount IS NULL OR t.amount >= :minAmount) AND (:maxAmount IS NULL OR t.amount <= :maxAmount) " +
+           "ORDER BY t.date DESC, t.id DESC")
+    Stream<Transaction> streamFiltered(
         @Param("userId") String userId,
-        @Param("startDate") LocalDateTime startDate,
-        @Param("endDate") LocalDateTime endDate
+        @Param("accountId") String accountId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("type") Transaction.TransactionType type,
+        @Param("category") String category,
+        @Param("minAmount") BigDecimal minAmount,
+        @Param("maxAmount") BigDecimal maxAmount
+    );
+    
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.account WHERE t.id IN :ids AND t.user.id = :userId")
+    List<Transaction> findByIdsForUser(
+        @Param("ids") Collection<String> ids,
+        @Param("userId") String userId
     );
     
-    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.type = 'INCOME' " +
-           "AND t.date >= :startDate AND t.date <= :endDate")
-    List<Transaction> findIncomeByUserIdAndDateRange(
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.paisa.dto.TransactionSearchRow(t.id, t.description, t.date, t.amount, t.account.id, " +
+           "t.category, t.type) FROM Transaction t WHERE t.user.id = :userId ORDER BY t.date, t.id")
+    Stream<TransactionSearchRow> streamSearchRows(@Param("userId") String userId);
+    
+    @Query("SELECT new com.paisa.dto.AdminTransactionDto(t.id, t.type, t.amount, t.description, t.date, " +
+           "t.category, t.isRecurring, t.recurringInterval, t.status, a.id, a.name, u.id, u.email, " +
+           "t.createdAt, t.updatedAt) " +
+           "FROM Transaction t LEFT JOIN t.account a LEFT JOIN t.user u " +
+           "WHERE (:userId IS NULL OR u.id = :userId) " +
+           "AND (:from IS NULL OR t.date >= :from) AND (:to IS NULL OR t.date <= :to) " +
+           "AND (:type IS NULL OR t.type = :type) " +
+           "AND (:cursorDate IS NULL OR t.date < :cursorDate OR (t.date = :cursorDate AND t.id < :cursorId)) " +
+           "ORDER BY t.date DESC, t.id DESC")
+    List<AdminTransactionDto> findAdminPage(
         @Param("userId") String userId,
-        @Param("startDate") LocalDateTime startDate,
-        @Param("endDate") LocalDateTime endDate
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("type") Transaction.TransactionType type,
+        @Param("cursorDate") LocalDateTime cursorDate,
+        @Param("cursorId") String cursorId,
+        Pageable pageable
     );
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE))
+    @Query("SELECT new com.paisa.dto.AdminTransactionDto(t.id, t.type, t.amount, t.description, t.date, " +
+           "t.category, t.isRecurring, t.recurringInterval, t.status, a.id, a.name, u.id, u.email, " +
+           "t.createdAt, t.updatedAt) " +
+           "FROM Transaction t LEFT JOIN t.account a LEFT JOIN t.user u " +
+           "WHERE (:userId IS NULL OR u.id = :userId) " +
+           "AND (:from IS NULL OR t.date >= :from) AND (:to IS NULL OR t.date <= :to) " +
+           "AND (:type IS NULL OR t.type = :type) " +
+           "ORDER BY t.date DESC, t.id DESC")
+    Stream<AdminTransactionDto> streamAdmin(
+        @Param("userId") String userId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("type") Transaction.TransactionType type
+    );
+    
+    @Query("SELECT t.id AS id, t.nextRecurringDate AS nextRecurringDate FROM Transaction t " +
+           "WHERE t.isRecurring = true AND t.nextRecurringDate <= :now " +
+           "AND (:afterDate IS NULL OR t.nextRecurringDate > :afterDate " +
+           "OR (t.nextRecurringDate = :afterDate AND t.id > :afterId)) " +
+           "ORDER BY t.nextRecurringDate, t.id")
+    List<RecurringTemplateRef> findDueRecurringTemplates(
+        @Param("now") LocalDateTime now,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") String afterId,
+        Pageable pageable
+    );
+    
+    @Modifying
+    @Query("UPDATE Transaction t SET t.nextRecurringDate = :nextDate, t.lastProcessed = :processedAt " +
+           "WHERE t.id = :id AND t.isRecurring = true AND t.nextRecurringDate = :expectedDate")
+    int advanceRecurringTemplate(
+        @Param("id") String id,
+        @Param("expectedDate") LocalDateTime expectedDate,
+        @Param("nextDate") LocalDateTime nextDate,
+        @Param("processedAt") LocalDateTime processedAt
+    );
+    
+    @Query("SELECT YEAR(t.date) AS periodYear, MONTH(t.date) AS periodMonth, t.type AS type, " +
+           "t.category AS category, SUM(t.amount) AS total, COUNT(t) AS transactionCount " +
+           "FROM Transaction t WHERE t.user.id = :userId " +
+           "GROUP BY YEAR(t.date), MONTH(t.date), t.type, t.category")
+    List<MonthlyCategoryTotal> sumByMonthAndCategory(@Param("userId") String userId);
+    
+    @Query("SELECT YEAR(t.date) AS periodYear, MONTH(t.date) AS periodMonth, t.type AS type, " +
+           "t.category AS category, SUM(t.amount) AS total, COUNT(t) AS transactionCount " +
+           "FROM Transaction t WHERE t.account.id = :accountId " +
+           "GROUP BY YEAR(t.date), MONTH(t.date), t.type, t.category")
+    List<MonthlyCategoryTotal> sumByMonthAndCategoryForAccount(@Param("accountId") String accountId);
+    
+    @Query("SELECT t.id AS id, t.date AS date, t.updatedAt AS updatedAt FROM Transaction t " +
+           "WHERE t.updatedAt <= :until AND (:afterTime IS NULL OR t.updatedAt > :afterTime " +
+           "OR (t.updatedAt = :afterTime AND t.id > :afterId)) " +
+           "ORDER BY t.updatedAt, t.id")
+    List<ChangedRow> findChangedSince(
+        @Param("afterTime") LocalDateTime afterTime,
+        @Param("afterId") String afterId,
+        @Param("until") LocalDateTime until,
+        Pageable pageable
+    );
+    
+    @Query("SELECT t.type AS type, t.category AS category, SUM(t.amount) AS total, COUNT(t) AS transactionCount " +
+           "FROM Transaction t WHERE t.date >= :start AND t.date < :end " +
+           "GROUP BY t.type, t.category")
+    List<TypeCategoryTotal> sumAllByTypeAndCategory(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+    
+    @Query("SELECT COUNT(DISTINCT t.user.id) FROM Transaction t WHERE t.date >= :start AND t.date < :end")
+    long countActiveUsers(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+    
+    @Query("SELECT DISTINCT CAST(t.date AS LocalDate) FROM Transaction t WHERE t.account.id = :accountId")
+    List<LocalDate> findDaysByAccountId(@Param("accountId") String accountId);
+    
+    // Net balance movement per day, newest first; rides idx_transactions_account_date
+    @Query("SELECT new com.paisa.dto.DailyDeltaDto(CAST(t.date AS LocalDate), " +
+           "SUM(CASE WHEN t.type = 'INCOME' THEN t.amount ELSE -t.amount END)) " +
+           "FROM Transaction t WHERE t.account.id = :accountId AND t.status = 'COMPLETED' AND t.date >= :since " +
+           "GROUP BY CAST(t.date AS LocalDate) ORDER BY CAST(t.date AS LocalDate) DESC")
+    List<DailyDeltaDto> sumDailyDeltasSince(
+        @Param("accountId") String accountId,
+        @Param("since") LocalDateTime since
+    );
+    
+    interface RecurringTemplateRef {
+        String getId();
+        LocalDateTime getNextRecurringDate();
+    }
+    
+    interface TypeTotal {
+        Transaction.TransactionType getType();
+        BigDecimal getTotal();
+        Long getTransactionCount();
+    }
+    
+    interface CategoryTotal {
+        String getCategory();
+        BigDecimal getTotal();
+        Long getTransactionCount();
+    }
+    
+    interface ChangedRow {
+        String getId();
+        LocalDateTime getDate();
+        LocalDateTime getUpdatedAt();
+    }
+    
+    interface TypeCategoryTotal {
+        Transaction.TransactionType getType();
+        String getCategory();
+        BigDecimal getTotal();
+        Long getTransactionCount();
+    }
+    
+    interface MonthlyCategoryTotal {
+        Integer getPeriodYear();
+        Integer getPeriodMonth();
+        Transaction.TransactionType getType();
+        String getCategory();
+        BigDecimal getTotal();
+        Long getTransactionCount();
+    }
 }
-
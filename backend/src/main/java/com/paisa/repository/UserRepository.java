@@ -1,14 +1,51 @@
 package com.paisa.repository;
 
+import com.paisa.dto.AdminUserDto;
 import com.paisa.entity.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<String> findIdsAfter(@Param("afterId") String afterId, Pageable pageable);
+    
+    // Walks users by primary key and probes each one's transactions through the user_id index
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId AND EXISTS " +
+           "(SELECT t.id FROM Transaction t WHERE t.user = u AND t.updatedAt >= :since) ORDER BY u.id")
+    List<String> findActiveIdsAfter(
+        @Param("afterId") String afterId,
+        @Param("since") LocalDateTime since,
+        Pageable pageable
+    );
+    
+    @Query("SELECT new com.paisa.dto.AdminUserDto(u.id, u.email, u.name, u.role, u.createdAt) FROM User u " +
+           "WHERE (:cursorDate IS NULL OR u.createdAt < :cursorDate " +
+           "OR (u.createdAt = :cursorDate AND u.id < :cursorId)) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<AdminUserDto> findAdminPage(
+        @Param("cursorDate") LocalDateTime cursorDate,
+        @Param("cursorId") String cursorId,
+        Pageable pageable
+    );
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE))
+    @Query("SELECT new com.paisa.dto.AdminUserDto(u.id, u.email, u.name, u.role, u.createdAt) FROM User u " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    Stream<AdminUserDto> streamAdmin();
 }
-
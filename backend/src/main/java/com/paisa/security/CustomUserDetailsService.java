@@ -1,24 +1,31 @@
 package com.paisa.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.paisa.entity.User;
 import com.paisa.repository.UserRepository;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.time.Duration;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
     
     private final UserRepository userRepository;
+    private final Cache<String, UserPrincipal> principalCache;
     
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${security.principal-cache.max-size:10000}") long maxSize,
+                                    @Value("${security.principal-cache.ttl:5m}") Duration ttl) {
         this.userRepository = userRepository;
+        this.principalCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
     }
     
     @Override
@@ -26,15 +33,15 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
         
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .authorities(getAuthorities(user))
-                .build();
+        return UserPrincipal.from(user);
     }
     
-    private Collection<? extends GrantedAuthority> getAuthorities(User user) {
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+    // Principal for tokens issued before the user id was embedded; the password hash is not retained
+    public UserPrincipal loadCachedPrincipal(String email) {
+        return principalCache.get(email, key -> {
+            UserPrincipal principal = (UserPrincipal) loadUserByUsername(key);
+            return new UserPrincipal(principal.getId(), principal.getEmail(), principal.getName(), null,
+                    principal.getRole());
+        });
     }
 }
-
@@ -0,0 +1,52 @@
+package com.paisa.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paisa.dto.AIRecommendationDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+// Last recommendation per user, valid only while the fingerprint of the user's spend profile is unchanged
+@Component
+public class AIRecommendationCache {
+
+    private final Cache<String, Entry> cache;
+
+    public AIRecommendationCache(MeterRegistry meterRegistry,
+                                 @Value("${ai.recommendation-cache.max-size:10000}") long maxSize,
+                                 @Value("${ai.recommendation-cache.ttl:6h}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "ai.recommendations");
+    }
+
+    public AIRecommendationDto get(String userId, String fingerprint) {
+        Entry entry = cache.getIfPresent(userId);
+        return entry != null && entry.fingerprint().equals(fingerprint) ? entry.recommendations() : null;
+    }
+
+    public void put(String userId, String fingerprint, AIRecommendationDto recommendations) {
+        cache.put(userId, new Entry(fingerprint, recommendations));
+    }
+
+    public void invalidate(String userId) {
+        cache.invalidate(userId);
+    }
+
+    // After commit, so a concurrent read cannot refill the entry from data the write has not yet committed
+    @TransactionalEventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    private record Entry(String fingerprint, AIRecommendationDto recommendations) {
+    }
+}
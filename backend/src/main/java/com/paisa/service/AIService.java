@@ -6,21 +6,42 @@ import com.paisa.dto.AIRecommendationDto;
 import com.paisa.dto.TransactionDto;
 import com.paisa.entity.Transaction;
 import com.paisa.repository.TransactionRepository;
-import com.paisa.repository.UserRepository;
+import com.paisa.util.CircuitBreaker;
+import com.paisa.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutException;
+import io.netty.handler.timeout.ReadTimeoutHandler;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class AIService {
@@ -31,76 +52,236 @@ public class AIService {
     @Value("${gemini.base-url}")
     private String geminiBaseUrl;
     
+    @Value("${gemini.connect-timeout:2s}")
+    private Duration connectTimeout;
+    
+    @Value("${gemini.read-timeout:10s}")
+    private Duration readTimeout;
+    
+    @Value("${gemini.max-connections:20}")
+    private int maxConnections;
+    
+    @Value("${gemini.max-concurrent-calls:20}")
+    private int maxConcurrentCalls;
+    
+    @Value("${gemini.rate-limit.requests-per-minute:60}")
+    private long requestsPerMinute;
+    
+    @Value("${gemini.rate-limit.burst:10}")
+    private long rateLimitBurst;
+    
+    @Value("${gemini.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+    
+    @Value("${gemini.circuit-breaker.open-duration:30s}")
+    private Duration openDuration;
+    
     private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
+    private final AIRecommendationCache recommendationCache;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CompletableFuture<AIRecommendationDto>> pendingCalls = new ConcurrentHashMap<>();
+    private final Counter coalescedCalls;
     private WebClient webClient;
+    private ConnectionProvider connectionProvider;
+    private Semaphore inFlightCalls;
+    private TokenBucket rateLimiter;
+    private CircuitBreaker circuitBreaker;
     private final ObjectMapper objectMapper;
     
-    public AIService(TransactionRepository transactionRepository, 
-                    UserRepository userRepository) {
+    public AIService(TransactionRepository transactionRepository,
+                     AIRecommendationCache recommendationCache,
+                     MeterRegistry meterRegistry) {
         this.transactionRepository = transactionRepository;
-        this.userRepository = userRepository;
+        this.recommendationCache = recommendationCache;
+        this.meterRegistry = meterRegistry;
+        this.coalescedCalls = meterRegistry.counter("paisa.ai.calls.coalesced");
         this.objectMapper = new ObjectMapper();
     }
     
     @PostConstruct
     public void init() {
+        this.connectionProvider = ConnectionProvider.builder("gemini")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxConcurrentCalls)
+                .pendingAcquireTimeout(connectTimeout)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout)
+                .doOnConnected(connection -> connection
+                        .addHandlerLast(new ReadTimeoutHandler(readTimeout.toMillis(), TimeUnit.MILLISECONDS)));
         this.webClient = WebClient.builder()
-                .baseUrl("https://generativelanguage.googleapis.com")
+                .baseUrl(geminiBaseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
+        this.inFlightCalls = new Semaphore(maxConcurrentCalls);
+        this.rateLimiter = new TokenBucket(rateLimitBurst, requestsPerMinute);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        meterRegistry.gauge("paisa.ai.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal());
     }
     
-    private String getUserIdFromEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getId();
+    @PreDestroy
+    public void shutdown() {
+        connectionProvider.dispose();
     }
     
-    public AIRecommendationDto getRecommendations(String email) {
-        String userId = getUserIdFromEmail(email);
-        LocalDateTime threeMonthsAgo = LocalDateTime.now().minusMonths(3);
+    public AIRecommendationDto getRecommendations(String userId) {
+        return getRecommendationsAsync(userId).join();
+    }
+    
+    public CompletableFuture<AIRecommendationDto> getRecommendationsAsync(String userId) {
+        return getRecommendationsAsync(userId, loadProfile(userId));
+    }
+    
+    public SpendProfile loadProfile(String userId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime threeMonthsAgo = now.minusMonths(3);
         
-        List<Transaction> transactions = transactionRepository
-                .findByUserIdAndDateBetween(userId, threeMonthsAgo, LocalDateTime.now());
+        BigDecimal totalIncome = BigDecimal.ZERO;
+        BigDecimal totalExpense = BigDecimal.ZERO;
+        for (TransactionRepository.TypeTotal total : transactionRepository.sumByType(userId, threeMonthsAgo, now)) {
+            if (total.getType() == Transaction.TransactionType.INCOME) {
+                totalIncome = totalIncome.add(total.getTotal());
+            } else {
+                totalExpense = totalExpense.add(total.getTotal());
+            }
+        }
         
-        if (transactions.isEmpty()) {
-            return getDefaultRecommendations();
+        // GROUP BY leaves the row order to the plan; sorted here rather than in SQL to keep the query free of a
+        // filesort, so the same totals always render the same prompt and fingerprint
+        List<TransactionRepository.CategoryTotal> expensesByCategory = transactionRepository
+                .sumByCategory(userId, Transaction.TransactionType.EXPENSE, threeMonthsAgo, now).stream()
+                .sorted(Comparator.comparing(TransactionRepository.CategoryTotal::getCategory))
+                .toList();
+        
+        return new SpendProfile(threeMonthsAgo, now, totalIncome, totalExpense, expensesByCategory);
+    }
+    
+    public AIRecommendationDto getCachedRecommendations(String userId, SpendProfile profile) {
+        return profile.isEmpty() ? null : recommendationCache.get(userId, fingerprint(profile));
+    }
+    
+    public String fingerprint(SpendProfile profile) {
+        return fingerprint(buildPrompt(profile));
+    }
+    
+    public boolean isAvailable() {
+        return circuitBreaker.getState() != CircuitBreaker.State.OPEN;
+    }
+    
+    // Aggregation runs on the caller's thread; the Gemini round trip does not hold any thread while in flight
+    public CompletableFuture<AIRecommendationDto> getRecommendationsAsync(String userId, SpendProfile profile) {
+        if (profile.isEmpty()) {
+            return CompletableFuture.completedFuture(getDefaultRecommendations());
         }
         
-        String prompt = buildPrompt(transactions);
-        String response = callGeminiAPI(prompt);
+        String prompt = buildPrompt(profile);
+        String fingerprint = fingerprint(prompt);
+        AIRecommendationDto cached = recommendationCache.get(userId, fingerprint);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
         
-        return parseAIResponse(response);
+        // Concurrent requests for the same profile share one upstream call; each caller gets its own copy
+        String callKey = userId + ":" + fingerprint;
+        CompletableFuture<AIRecommendationDto> pending = new CompletableFuture<>();
+        CompletableFuture<AIRecommendationDto> existing = pendingCalls.putIfAbsent(callKey, pending);
+        if (existing != null) {
+            coalescedCalls.increment();
+            return existing.copy();
+        }
+        fetchRecommendations(userId, fingerprint, prompt).whenComplete((recommendations, error) -> {
+            pendingCalls.remove(callKey, pending);
+            if (error != null) {
+                pending.completeExceptionally(error);
+            } else {
+                pending.complete(recommendations);
+            }
+        });
+        return pending.copy();
+    }
+    
+    private CompletableFuture<AIRecommendationDto> fetchRecommendations(String userId, String fingerprint,
+                                                                        String prompt) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return reject("circuit-open", "Gemini circuit breaker is open");
+        }
+        if (!rateLimiter.tryAcquire()) {
+            circuitBreaker.releasePermission();
+            return reject("rate-limit", "Gemini request rate limit reached");
+        }
+        if (!inFlightCalls.tryAcquire()) {
+            circuitBreaker.releasePermission();
+            return reject("bulkhead", "Too many concurrent AI requests");
+        }
+        Timer.Sample call = Timer.start(meterRegistry);
+        return callGeminiAPI(prompt)
+                .doOnSuccess(response -> {
+                    circuitBreaker.onSuccess();
+                    call.stop(geminiCallTimer(response != null ? "success" : "empty"));
+                })
+                .doOnError(error -> {
+                    circuitBreaker.onFailure();
+                    call.stop(geminiCallTimer(isTimeout(error) ? "timeout" : "error"));
+                })
+                .map(response -> {
+                    // An unparseable body comes back as the defaults, which are never cached
+                    AIRecommendationDto recommendations = parseAIResponse(response);
+                    if (!recommendations.equals(getDefaultRecommendations())) {
+                        recommendationCache.put(userId, fingerprint, recommendations);
+                    }
+                    return recommendations;
+                })
+                .defaultIfEmpty(getDefaultRecommendations())
+                .doFinally(signal -> inFlightCalls.release())
+                .toFuture();
     }
     
-    private String buildPrompt(List<Transaction> transactions) {
+    // Upstream latency by outcome; "empty" is a 2xx whose body held no recommendation JSON
+    private Timer geminiCallTimer(String outcome) {
+        return Timer.builder("paisa.ai.gemini.calls")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof ReadTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private CompletableFuture<AIRecommendationDto> reject(String reason, String message) {
+        meterRegistry.counter("paisa.ai.calls.rejected", "reason", reason).increment();
+        return CompletableFuture.failedFuture(new RuntimeException(message));
+    }
+    
+    // The prompt is rendered purely from the aggregated spend profile, so its digest identifies that profile
+    private String fingerprint(String prompt) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(prompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    public static String buildPrompt(SpendProfile profile) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("Analyze the following financial transactions and provide personalized recommendations. ");
         prompt.append("Return ONLY valid JSON in this exact format: {\"recommendations\": [\"rec1\", \"rec2\", ...], \"summary\": \"brief summary\"}\n\n");
         prompt.append("Transactions:\n");
         
-        Map<String, BigDecimal> expensesByCategory = transactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.EXPENSE)
-                .collect(Collectors.groupingBy(
-                    Transaction::getCategory,
-                    Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)
-                ));
-        
         prompt.append("Expense Categories:\n");
-        expensesByCategory.forEach((category, amount) -> 
-            prompt.append(String.format("- %s: ₹%.2f\n", category, amount))
+        profile.expensesByCategory().forEach(category -> 
+            prompt.append(String.format("- %s: ₹%.2f\n", category.getCategory(), category.getTotal()))
         );
         
-        BigDecimal totalExpense = expensesByCategory.values().stream()
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal totalIncome = transactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.INCOME)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        prompt.append(String.format("\nTotal Income: ₹%.2f\n", totalIncome));
-        prompt.append(String.format("Total Expense: ₹%.2f\n", totalExpense));
+        prompt.append(String.format("\nTotal Income: ₹%.2f\n", profile.totalIncome()));
+        prompt.append(String.format("Total Expense: ₹%.2f\n", profile.totalExpense()));
         
         prompt.append("\nProvide 3-5 actionable financial recommendations and a brief summary. ");
         prompt.append("Focus on savings, budgeting, and expense optimization. ");
@@ -109,54 +290,41 @@ public class AIService {
         return prompt.toString();
     }
     
-    private String callGeminiAPI(String prompt) {
-        try {
-            if (geminiApiKey == null || geminiApiKey.isEmpty() || geminiApiKey.equals("your-gemini-api-key")) {
-                throw new RuntimeException("GEMINI_API_KEY is not set or invalid");
-            }
-            
-            Map<String, Object> requestBody = new HashMap<>();
-            Map<String, Object> contents = new HashMap<>();
-            List<Map<String, Object>> parts = new ArrayList<>();
-            
-            Map<String, Object> textPart = new HashMap<>();
-            textPart.put("text", prompt);
-            parts.add(textPart);
-            
-            contents.put("parts", parts);
-            requestBody.put("contents", List.of(contents));
-            
-            Map<String, Object> generationConfig = new HashMap<>();
-            generationConfig.put("temperature", 0.7);
-            generationConfig.put("topK", 40);
-            generationConfig.put("topP", 0.95);
-            generationConfig.put("maxOutputTokens", 1024);
-            generationConfig.put("responseMimeType", "application/json");
-            requestBody.put("generationConfig", generationConfig);
-            
-            String url = String.format("/v1beta/models/gemini-pro:generateContent?key=%s", geminiApiKey);
-            
-            String response = webClient.post()
-                    .uri(url)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(), 
-                        clientResponse -> clientResponse.bodyToMono(String.class)
-                            .map(body -> new RuntimeException("Gemini API error: " + body)))
-                    .bodyToMono(String.class)
-                    .block();
-            
-            if (response == null || response.isEmpty()) {
-                throw new RuntimeException("Empty response from Gemini API");
-            }
-            
-            return sanitizeAndExtractJSON(response);
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to get AI recommendations: " + e.getMessage(), e);
+    private Mono<String> callGeminiAPI(String prompt) {
+        if (geminiApiKey == null || geminiApiKey.isEmpty() || geminiApiKey.equals("your-gemini-api-key")) {
+            return Mono.error(new RuntimeException("GEMINI_API_KEY is not set or invalid"));
         }
+        
+        Map<String, Object> requestBody = new HashMap<>();
+        Map<String, Object> contents = new HashMap<>();
+        List<Map<String, Object>> parts = new ArrayList<>();
+        
+        Map<String, Object> textPart = new HashMap<>();
+        textPart.put("text", prompt);
+        parts.add(textPart);
+        
+        contents.put("parts", parts);
+        requestBody.put("contents", List.of(contents));
+        
+        Map<String, Object> generationConfig = new HashMap<>();
+        generationConfig.put("temperature", 0.7);
+        generationConfig.put("topK", 40);
+        generationConfig.put("topP", 0.95);
+        generationConfig.put("maxOutputTokens", 1024);
+        generationConfig.put("responseMimeType", "application/json");
+        requestBody.put("generationConfig", generationConfig);
+        
+        return webClient.post()
+                .uri("/models/gemini-pro:generateContent?key={key}", geminiApiKey)
+                .header("Content-Type", "application/json")
+                .bodyValue(requestBody)
+                .retrieve()
+                .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(), 
+                    clientResponse -> clientResponse.bodyToMono(String.class)
+                        .map(body -> new RuntimeException("Gemini API error: " + body)))
+                .bodyToMono(String.class)
+                .timeout(connectTimeout.plus(readTimeout))
+                .mapNotNull(this::sanitizeAndExtractJSON);
     }
     
     private String sanitizeAndExtractJSON(String response) {
@@ -194,7 +362,7 @@ public class AIService {
         return null;
     }
     
-    private AIRecommendationDto parseAIResponse(String response) {
+    public AIRecommendationDto parseAIResponse(String response) {
         if (response == null) {
             return getDefaultRecommendations();
         }
@@ -1,14 +1,22 @@
 package com.paisa.service;
 
+import com.paisa.dto.AccountBalanceDto;
 import com.paisa.dto.AccountDto;
+import com.paisa.dto.BalanceSeriesDto;
 import com.paisa.entity.Account;
 import com.paisa.entity.User;
 import com.paisa.repository.AccountRepository;
+import com.paisa.repository.TransactionRepository;
 import com.paisa.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -16,23 +24,37 @@ public class AccountService {
     
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final PlatformStatsService platformStatsService;
+    private final LedgerService ledgerService;
+    private final BalanceSeriesService balanceSeriesService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final BudgetTrackingService budgetTrackingService;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public AccountService(AccountRepository accountRepository, UserRepository userRepository) {
+    public AccountService(AccountRepository accountRepository,
+                          UserRepository userRepository,
+                          TransactionRepository transactionRepository,
+                          PlatformStatsService platformStatsService,
+                          LedgerService ledgerService,
+                          BalanceSeriesService balanceSeriesService,
+                          MonthlyRollupService monthlyRollupService,
+                          BudgetTrackingService budgetTrackingService,
+                          ApplicationEventPublisher eventPublisher) {
         this.accountRepository = accountRepository;
         this.userRepository = userRepository;
-    }
-    
-    private String getUserIdFromEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return user.getId();
+        this.transactionRepository = transactionRepository;
+        this.platformStatsService = platformStatsService;
+        this.ledgerService = ledgerService;
+        this.balanceSeriesService = balanceSeriesService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.budgetTrackingService = budgetTrackingService;
+        this.eventPublisher = eventPublisher;
     }
     
     @Transactional
-    public AccountDto createAccount(AccountDto accountDto, String email) {
-        String userId = getUserIdFromEmail(email);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public AccountDto createAccount(AccountDto accountDto, String userId) {
+        User user = userRepository.getReferenceById(userId);
         
         Account account = new Account();
         account.setName(accountDto.getName());
@@ -50,26 +72,24 @@ public class AccountService {
         }
         
         account = accountRepository.save(account);
+        ledgerService.open(account.getId(), account.getBalance());
         return convertToDto(account);
     }
     
-    public List<AccountDto> getUserAccounts(String email) {
-        String userId = getUserIdFromEmail(email);
+    public List<AccountDto> getUserAccounts(String userId) {
         return accountRepository.findByUserId(userId).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
-    public AccountDto getAccountById(String id, String email) {
-        String userId = getUserIdFromEmail(email);
+    public AccountDto getAccountById(String id, String userId) {
         Account account = accountRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
         return convertToDto(account);
     }
     
     @Transactional
-    public AccountDto updateAccount(String id, AccountDto accountDto, String email) {
-        String userId = getUserIdFromEmail(email);
+    public AccountDto updateAccount(String id, AccountDto accountDto, String userId) {
         Account account = accountRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
         
@@ -90,13 +110,38 @@ public class AccountService {
     }
     
     @Transactional
-    public void deleteAccount(String id, String email) {
-        String userId = getUserIdFromEmail(email);
+    public void deleteAccount(String id, String userId) {
         Account account = accountRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
+        // The account's transactions are removed with it, so their totals come out of the rollups and
+        // the budget periods first
+        Map<MonthlyRollupService.Key, MonthlyRollupService.Delta> removed = new HashMap<>();
+        transactionRepository.sumByMonthAndCategoryForAccount(id).forEach(total -> removed
+                .computeIfAbsent(new MonthlyRollupService.Key(LocalDate.of(total.getPeriodYear(),
+                        total.getPeriodMonth(), 1), total.getType(), total.getCategory()),
+                        key -> new MonthlyRollupService.Delta())
+                .add(total.getTotal().negate(), -total.getTransactionCount()));
+        monthlyRollupService.applyDeltas(userId, removed);
+        budgetTrackingService.applyDeltas(userId, removed);
+        platformStatsService.markDirty(transactionRepository.findDaysByAccountId(id));
+        ledgerService.purge(id);
+        eventPublisher.publishEvent(new TransactionChangedEvent(userId, null, null));
         accountRepository.delete(account);
     }
     
+    public AccountBalanceDto getBalanceAsOf(String id, LocalDateTime asOf, String userId) {
+        accountRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        return ledgerService.getBalanceAsOf(id, asOf);
+    }
+    
+    public BalanceSeriesDto getBalanceSeries(String id, LocalDate from, LocalDate to,
+                                             BalanceSeriesDto.Granularity granularity, String userId) {
+        accountRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        return balanceSeriesService.getSeries(id, from, to, granularity);
+    }
+    
     private AccountDto convertToDto(Account account) {
         AccountDto dto = new AccountDto();
         dto.setId(account.getId());
@@ -2,21 +2,32 @@ package com.paisa.service;
 
 import com.paisa.dto.AdminAccountDto;
 import com.paisa.dto.AdminTransactionDto;
+import com.paisa.dto.AdminTransactionFilter;
 import com.paisa.dto.AdminUserDto;
+import com.paisa.dto.CursorPageDto;
 import com.paisa.entity.Account;
-import com.paisa.entity.Transaction;
-import com.paisa.entity.User;
 import com.paisa.repository.AccountRepository;
 import com.paisa.repository.TransactionRepository;
 import com.paisa.repository.UserRepository;
+import com.paisa.util.CursorCodec;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+// Admin listings are read as constructor projections, so joined user and account columns come from the same
+// query and no entities are loaded
 @Service
 public class AdminService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
@@ -29,69 +40,79 @@ public class AdminService {
         this.transactionRepository = transactionRepository;
     }
 
-    public List<AdminUserDto> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
-                .map(this::convertUser)
-                .collect(Collectors.toList());
+    public CursorPageDto<AdminUserDto> getUserPage(String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        CursorCodec.Cursor position = decode(cursor);
+        List<AdminUserDto> rows = userRepository.findAdminPage(
+                position != null ? position.date() : null,
+                position != null ? position.id() : null,
+                PageRequest.of(0, pageSize + 1));
+        return toPage(rows, pageSize, AdminUserDto::getCreatedAt, AdminUserDto::getId);
     }
 
-    public List<AdminAccountDto> getAllAccounts() {
-        return accountRepository.findAll()
-                .stream()
-                .map(this::convertAccount)
-                .collect(Collectors.toList());
+    public CursorPageDto<AdminAccountDto> getAccountPage(String userId, Account.AccountType type,
+                                                         String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        CursorCodec.Cursor position = decode(cursor);
+        List<AdminAccountDto> rows = accountRepository.findAdminPage(userId, type,
+                position != null ? position.date() : null,
+                position != null ? position.id() : null,
+                PageRequest.of(0, pageSize + 1));
+        return toPage(rows, pageSize, AdminAccountDto::getCreatedAt, AdminAccountDto::getId);
     }
 
-    public List<AdminTransactionDto> getAllTransactions() {
-        return transactionRepository.findAll()
-                .stream()
-                .map(this::convertTransaction)
-                .collect(Collectors.toList());
+    public CursorPageDto<AdminTransactionDto> getTransactionPage(AdminTransactionFilter filter,
+                                                                 String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        CursorCodec.Cursor position = decode(cursor);
+        List<AdminTransactionDto> rows = transactionRepository.findAdminPage(filter.getUserId(),
+                filter.getFrom(), filter.getTo(), filter.getType(),
+                position != null ? position.date() : null,
+                position != null ? position.id() : null,
+                PageRequest.of(0, pageSize + 1));
+        return toPage(rows, pageSize, AdminTransactionDto::getDate, AdminTransactionDto::getId);
     }
 
-    private AdminUserDto convertUser(User user) {
-        return new AdminUserDto(
-                user.getId(),
-                user.getEmail(),
-                user.getName(),
-                user.getRole(),
-                user.getCreatedAt()
-        );
+    @Transactional(readOnly = true)
+    public void streamUsers(Consumer<AdminUserDto> consumer) {
+        try (Stream<AdminUserDto> users = userRepository.streamAdmin()) {
+            users.forEach(consumer);
+        }
     }
 
-    private AdminAccountDto convertAccount(Account account) {
-        return new AdminAccountDto(
-                account.getId(),
-                account.getName(),
-                account.getType(),
-                account.getBalance(),
-                account.getIsDefault(),
-                account.getUser() != null ? account.getUser().getId() : null,
-                account.getUser() != null ? account.getUser().getEmail() : null,
-                account.getCreatedAt(),
-                account.getUpdatedAt()
-        );
+    @Transactional(readOnly = true)
+    public void streamAccounts(String userId, Account.AccountType type, Consumer<AdminAccountDto> consumer) {
+        try (Stream<AdminAccountDto> accounts = accountRepository.streamAdmin(userId, type)) {
+            accounts.forEach(consumer);
+        }
     }
 
-    private AdminTransactionDto convertTransaction(Transaction transaction) {
-        return new AdminTransactionDto(
-                transaction.getId(),
-                transaction.getType(),
-                transaction.getAmount(),
-                transaction.getDescription(),
-                transaction.getDate(),
-                transaction.getCategory(),
-                transaction.getIsRecurring(),
-                transaction.getRecurringInterval(),
-                transaction.getStatus(),
-                transaction.getAccount() != null ? transaction.getAccount().getId() : null,
-                transaction.getAccount() != null ? transaction.getAccount().getName() : null,
-                transaction.getUser() != null ? transaction.getUser().getId() : null,
-                transaction.getUser() != null ? transaction.getUser().getEmail() : null,
-                transaction.getCreatedAt(),
-                transaction.getUpdatedAt()
-        );
+    @Transactional(readOnly = true)
+    public void streamTransactions(AdminTransactionFilter filter, Consumer<AdminTransactionDto> consumer) {
+        try (Stream<AdminTransactionDto> transactions = transactionRepository.streamAdmin(filter.getUserId(),
+                filter.getFrom(), filter.getTo(), filter.getType())) {
+            transactions.forEach(consumer);
+        }
+    }
+
+    private int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
-}
 
+    private CursorCodec.Cursor decode(String cursor) {
+        return cursor != null && !cursor.isEmpty() ? CursorCodec.decode(cursor) : null;
+    }
+
+    // Rows are fetched one past the page size to learn whether another page exists
+    private <T> CursorPageDto<T> toPage(List<T> rows, int pageSize,
+                                        Function<T, LocalDateTime> date, Function<T, String> id) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            T last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(date.apply(last), id.apply(last));
+        }
+        return new CursorPageDto<>(page, nextCursor, hasMore);
+    }
+}
@@ -6,6 +6,7 @@ import com.paisa.dto.RegisterRequest;
 import com.paisa.entity.User;
 import com.paisa.repository.UserRepository;
 import com.paisa.security.JwtTokenProvider;
+import com.paisa.security.UserPrincipal;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -63,10 +64,8 @@ public class AuthService {
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String token = tokenProvider.generateToken(authentication);
         
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        return new AuthResponse(token, user.getEmail(), user.getName(), user.getRole().name());
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        return new AuthResponse(token, principal.getEmail(), principal.getName(), principal.getRole().name());
     }
 }
 
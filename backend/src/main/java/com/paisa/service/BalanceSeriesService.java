@@ -0,0 +1,123 @@
+package com.paisa.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paisa.dto.BalanceSeriesDto;
+import com.paisa.dto.DailyDeltaDto;
+import com.paisa.repository.AccountRepository;
+import com.paisa.repository.LedgerEntryRepository;
+import com.paisa.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Service
+public class BalanceSeriesService {
+    
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final long maxDays;
+    private final Cache<Key, BalanceSeriesDto> cache;
+    
+    public BalanceSeriesService(AccountRepository accountRepository,
+                                TransactionRepository transactionRepository,
+                                LedgerEntryRepository ledgerEntryRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${balance-series.max-days:4000}") long maxDays,
+                                @Value("${balance-series.cache.max-size:10000}") long maxSize,
+                                @Value("${balance-series.cache.ttl:1h}") Duration ttl) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.maxDays = maxDays;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "balance.series");
+    }
+    
+    // Cached per account and ledger sequence: any balance change bumps the sequence and misses the cache
+    @Transactional(readOnly = true)
+    public BalanceSeriesDto getSeries(String accountId, LocalDate from, LocalDate to,
+                                      BalanceSeriesDto.Granularity granularity) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new IllegalArgumentException("Range exceeds " + maxDays + " days");
+        }
+        long version = ledgerEntryRepository.findLastSequence(accountId);
+        Key key = new Key(accountId, from, to, granularity);
+        BalanceSeriesDto cached = cache.getIfPresent(key);
+        if (cached != null && cached.getVersion() == version) {
+            return cached;
+        }
+        
+        BalanceSeriesDto series = compute(accountId, from, to, granularity, version);
+        cache.put(key, series);
+        return series;
+    }
+    
+    public void invalidate(String accountId) {
+        cache.asMap().keySet().removeIf(key -> key.accountId().equals(accountId));
+    }
+    
+    // A date move keeps the balance and the ledger sequence, so it drops the account's entries explicitly; after
+    // commit, so a concurrent read cannot refill them from the dates the update has not yet committed
+    @TransactionalEventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (event.dateMoved()) {
+            invalidate(event.row().getAccountId());
+        }
+    }
+    
+    // Walks back from the current balance: each bucket closes at the balance minus every later day's movement
+    private BalanceSeriesDto compute(String accountId, LocalDate from, LocalDate to,
+                                     BalanceSeriesDto.Granularity granularity, long version) {
+        BigDecimal balance = accountRepository.findBalanceById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        List<DailyDeltaDto> deltas =
+                transactionRepository.sumDailyDeltasSince(accountId, from.atStartOfDay());
+        
+        List<BalanceSeriesDto.Point> points = new ArrayList<>();
+        int next = 0;
+        LocalDate close = to;
+        while (!close.isBefore(from)) {
+            while (next < deltas.size() && deltas.get(next).getDay().isAfter(close)) {
+                balance = balance.subtract(deltas.get(next++).getDelta());
+            }
+            LocalDate start = bucketStart(close, granularity);
+            points.add(new BalanceSeriesDto.Point(start.isBefore(from) ? from : start, balance));
+            close = start.minusDays(1);
+        }
+        Collections.reverse(points);
+        return new BalanceSeriesDto(accountId, from, to, granularity, version, points);
+    }
+    
+    private static LocalDate bucketStart(LocalDate day, BalanceSeriesDto.Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+    
+    private record Key(String accountId, LocalDate from, LocalDate to, BalanceSeriesDto.Granularity granularity) {
+    }
+}
@@ -1,69 +1,249 @@
 package com.paisa.service;
 
-import com.paisa.entity.Budget;
+import com.paisa.dto.JobRunDto;
+import com.paisa.entity.JobCheckpoint;
 import com.paisa.entity.Transaction;
 import com.paisa.repository.BudgetRepository;
-import com.paisa.repository.TransactionRepository;
+import com.paisa.repository.JobCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BudgetAlertService {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(BudgetAlertService.class);
-    
+
+    private static final String JOB_NAME = "budget-alerts";
+
+    // Budget ids are lowercase hex UUIDs, so their first character splits the table into 16 id ranges
+    private static final String PARTITION_BOUNDS = "0123456789abcdef";
+
     private final BudgetRepository budgetRepository;
-    private final TransactionRepository transactionRepository;
-    
-    public BudgetAlertService(BudgetRepository budgetRepository, 
-                             TransactionRepository transactionRepository) {
+    private final JobCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicReference<JobRunDto> lastRun = new AtomicReference<>();
+    private final Timer runTimer;
+    private final Counter scannedCounter;
+    private final Counter alertsCounter;
+    private final Counter failedPartitionsCounter;
+    private final MeterRegistry meterRegistry;
+
+    public BudgetAlertService(BudgetRepository budgetRepository,
+                             JobCheckpointRepository checkpointRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${budget-alerts.workers:4}") int workerCount,
+                             @Value("${budget-alerts.chunk-size:500}") int chunkSize) {
         this.budgetRepository = budgetRepository;
-        this.transactionRepository = transactionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.meterRegistry = meterRegistry;
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "budget-alert-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.runTimer = meterRegistry.timer("paisa.budget.alerts.run.duration");
+        this.scannedCounter = meterRegistry.counter("paisa.budget.alerts.budgets.scanned");
+        this.alertsCounter = meterRegistry.counter("paisa.budget.alerts.sent");
+        this.failedPartitionsCounter = meterRegistry.counter("paisa.budget.alerts.partitions.failed");
+        meterRegistry.gauge("paisa.budget.alerts.last.run.throughput", lastRun,
+                run -> run.get() != null ? run.get().getItemsPerSecond() : 0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
     }
-    
+
     @Scheduled(cron = "0 0 9 1 * ?") // Run at 9 AM on the 1st day of every month
-    @Transactional
-    public void sendMonthlyBudgetAlerts() {
-        logger.info("Starting monthly budget alert job");
-        
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startOfMonth = now.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime previousMonth = startOfMonth.minusMonths(1);
-        LocalDateTime previousMonthStart = previousMonth.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        
-        List<Budget> budgets = budgetRepository.findAll();
-        
-        for (Budget budget : budgets) {
-            try {
-                String userId = budget.getUser().getId();
-                
-                List<Transaction> monthlyExpenses = transactionRepository
-                        .findExpensesByUserIdAndDateRange(userId, previousMonthStart, startOfMonth);
-                
-                BigDecimal totalSpent = monthlyExpenses.stream()
-                        .map(Transaction::getAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                
-                if (totalSpent.compareTo(budget.getAmount()) > 0) {
-                    logger.warn("Budget exceeded for user {}: Spent {} vs Budget {}", 
-                            userId, totalSpent, budget.getAmount());
-                    // In production, send email notification here
-                    budget.setLastAlertSent(now);
-                    budgetRepository.save(budget);
+    public void scheduledRun() {
+        sendMonthlyBudgetAlerts();
+    }
+
+    // Published by BudgetTrackingService once per threshold per period, after the triggering write commits
+    @TransactionalEventListener
+    public void onThresholdCrossed(BudgetThresholdEvent event) {
+        logger.warn("Budget {}% threshold reached for user {} in {}: Spent {} vs Budget {}", event.threshold(),
+                event.userId(), YearMonth.from(event.periodStart()), event.spent(), event.budgetAmount());
+        // In production, send email notification here
+        meterRegistry.counter("paisa.budget.alerts.thresholds.crossed",
+                "threshold", String.valueOf(event.threshold())).increment();
+    }
+
+    public JobRunDto getLastRun() {
+        return lastRun.get();
+    }
+
+    public JobRunDto sendMonthlyBudgetAlerts() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Budget alert run already in progress, skipping");
+            return null;
+        }
+        try {
+            return runTimer.record(() -> runOnce(YearMonth.now().minusMonths(1)));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Checkpoints are keyed by the month being evaluated, so a rerun for the same month resumes
+    // each partition after its last committed chunk and skips partitions that already finished
+    private JobRunDto runOnce(YearMonth month) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        String runKey = month.toString();
+        logger.info("Starting monthly budget alert job for {}", runKey);
+
+        List<JobCheckpoint> checkpoints = loadCheckpoints(runKey);
+        AtomicLong scanned = new AtomicLong();
+        AtomicLong alerted = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (JobCheckpoint checkpoint : checkpoints) {
+            if (checkpoint.getCompleted()) {
+                continue;
+            }
+            futures.add(workers.submit(() -> {
+                try {
+                    processPartition(checkpoint, month, startedAt, scanned, alerted);
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                    failedPartitionsCounter.increment();
+                    logger.error("Budget alert partition {} failed; it will resume from its checkpoint",
+                            checkpoint.getPartitionKey(), e);
                 }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get(1, TimeUnit.HOURS);
             } catch (Exception e) {
-                logger.error("Error processing budget alert for user {}", budget.getUser().getId(), e);
+                logger.error("Budget alert partition did not complete", e);
             }
         }
-        
-        logger.info("Completed monthly budget alert job");
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        double perSecond = durationMs > 0 ? scanned.get() * 1000.0 / durationMs : scanned.get();
+        JobRunDto run = new JobRunDto(JOB_NAME, startedAt, durationMs, scanned.get(), scanned.get(),
+                alerted.get(), failures.get(), perSecond);
+        lastRun.set(run);
+        scannedCounter.increment(scanned.get());
+        alertsCounter.increment(alerted.get());
+
+        logger.info("Completed monthly budget alert job for {}: {} budgets scanned, {} alerts, {} failed partitions "
+                + "in {} ms ({} rows/s)", runKey, scanned.get(), alerted.get(), failures.get(), durationMs,
+                String.format("%.1f", perSecond));
+        return run;
+    }
+
+    private List<JobCheckpoint> loadCheckpoints(String runKey) {
+        Map<String, JobCheckpoint> existing = checkpointRepository.findByJobNameAndRunKey(JOB_NAME, runKey).stream()
+                .collect(Collectors.toMap(JobCheckpoint::getPartitionKey, Function.identity()));
+
+        List<JobCheckpoint> missing = new ArrayList<>();
+        for (char bound : PARTITION_BOUNDS.toCharArray()) {
+            String partitionKey = String.valueOf(bound);
+            if (!existing.containsKey(partitionKey)) {
+                JobCheckpoint checkpoint = new JobCheckpoint();
+                checkpoint.setJobName(JOB_NAME);
+                checkpoint.setRunKey(runKey);
+                checkpoint.setPartitionKey(partitionKey);
+                missing.add(checkpoint);
+            }
+        }
+        checkpointRepository.saveAll(missing).forEach(checkpoint ->
+                existing.put(checkpoint.getPartitionKey(), checkpoint));
+
+        return PARTITION_BOUNDS.chars()
+                .mapToObj(bound -> existing.get(String.valueOf((char) bound)))
+                .collect(Collectors.toList());
     }
-}
 
+    private void processPartition(JobCheckpoint checkpoint, YearMonth month, LocalDateTime now,
+                                  AtomicLong scanned, AtomicLong alerted) {
+        LocalDate periodStart = month.atDay(1);
+        LocalDateTime start = periodStart.atStartOfDay();
+        LocalDateTime end = periodStart.plusMonths(1).atStartOfDay();
+        int bound = PARTITION_BOUNDS.indexOf(checkpoint.getPartitionKey());
+        String upperId = bound + 1 < PARTITION_BOUNDS.length()
+                ? String.valueOf(PARTITION_BOUNDS.charAt(bound + 1))
+                : null;
+        String afterId = checkpoint.getLastProcessedId() != null
+                ? checkpoint.getLastProcessedId()
+                : checkpoint.getPartitionKey();
+
+        boolean done = false;
+        while (!done) {
+            String chunkAfterId = afterId;
+            ChunkResult result = transactionTemplate.execute(status -> {
+                List<BudgetRepository.BudgetSpend> rows = budgetRepository.findSpendInRange(
+                        Transaction.TransactionType.EXPENSE, start, end, chunkAfterId, upperId,
+                        PageRequest.of(0, chunkSize));
+
+                List<String> exceeded = new ArrayList<>();
+                for (BudgetRepository.BudgetSpend row : rows) {
+                    BigDecimal spent = row.getSpent() != null ? row.getSpent() : BigDecimal.ZERO;
+                    if (spent.compareTo(row.getAmount()) > 0) {
+                        logger.warn("Budget exceeded for user {}: Spent {} vs Budget {}",
+                                row.getUserId(), spent, row.getAmount());
+                        // In production, send email notification here
+                        exceeded.add(row.getBudgetId());
+                    }
+                }
+                if (!exceeded.isEmpty()) {
+                    budgetRepository.markAlertSent(exceeded, now);
+                }
+
+                boolean last = rows.size() < chunkSize;
+                String lastId = rows.isEmpty() ? chunkAfterId : rows.get(rows.size() - 1).getBudgetId();
+                checkpointRepository.advance(checkpoint.getId(), lastId, rows.size(), last);
+                return new ChunkResult(lastId, rows.size(), exceeded.size(), last);
+            });
+
+            scanned.addAndGet(result.scanned());
+            alerted.addAndGet(result.alerted());
+            afterId = result.lastId();
+            done = result.last();
+        }
+    }
+
+    private record ChunkResult(String lastId, int scanned, int alerted, boolean last) {
+    }
+}
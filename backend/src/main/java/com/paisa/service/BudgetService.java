@@ -21,17 +21,9 @@ public class BudgetService {
         this.userRepository = userRepository;
     }
     
-    private String getUserIdFromEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return user.getId();
-    }
-    
     @Transactional
-    public BudgetDto createOrUpdateBudget(BudgetDto budgetDto, String email) {
-        String userId = getUserIdFromEmail(email);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public BudgetDto createOrUpdateBudget(BudgetDto budgetDto, String userId) {
+        User user = userRepository.getReferenceById(userId);
         
         Optional<Budget> existingBudget = budgetRepository.findByUserId(userId);
         
@@ -49,16 +41,14 @@ public class BudgetService {
         return convertToDto(budget);
     }
     
-    public BudgetDto getBudgetByUserId(String email) {
-        String userId = getUserIdFromEmail(email);
+    public BudgetDto getBudgetByUserId(String userId) {
         Budget budget = budgetRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Budget not found"));
         return convertToDto(budget);
     }
     
     @Transactional
-    public void deleteBudget(String email) {
-        String userId = getUserIdFromEmail(email);
+    public void deleteBudget(String userId) {
         Budget budget = budgetRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Budget not found"));
         budgetRepository.delete(budget);
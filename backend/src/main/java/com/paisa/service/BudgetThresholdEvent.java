@@ -0,0 +1,8 @@
+package com.paisa.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record BudgetThresholdEvent(String userId, String budgetId, LocalDate periodStart, int threshold,
+                                   BigDecimal spent, BigDecimal budgetAmount) {
+}
@@ -0,0 +1,152 @@
+package com.paisa.service;
+
+import com.paisa.entity.Transaction;
+import com.paisa.repository.BudgetPeriodRepository;
+import com.paisa.repository.TransactionRepository;
+import com.paisa.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+@Service
+public class BudgetTrackingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetTrackingService.class);
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final int REBUILD_USER_BATCH_SIZE = 500;
+
+    private final BudgetPeriodRepository budgetPeriodRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int[] thresholds;
+
+    public BudgetTrackingService(BudgetPeriodRepository budgetPeriodRepository,
+                                 TransactionRepository transactionRepository,
+                                 UserRepository userRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${budget-alerts.thresholds:50,80,100}") int[] thresholds) {
+        this.budgetPeriodRepository = budgetPeriodRepository;
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.thresholds = Arrays.stream(thresholds).sorted().toArray();
+    }
+
+    @Transactional
+    public void record(String userId, Transaction.TransactionType type, LocalDateTime date, BigDecimal amount) {
+        if (type == Transaction.TransactionType.EXPENSE) {
+            applyExpenseDelta(userId, MonthlyRollupService.periodOf(date), amount);
+        }
+    }
+
+    @Transactional
+    public void unrecord(String userId, Transaction.TransactionType type, LocalDateTime date, BigDecimal amount) {
+        if (type == Transaction.TransactionType.EXPENSE) {
+            applyExpenseDelta(userId, MonthlyRollupService.periodOf(date), amount.negate());
+        }
+    }
+
+    @Transactional
+    public void applyDeltas(String userId, Map<MonthlyRollupService.Key, MonthlyRollupService.Delta> deltas) {
+        Map<LocalDate, BigDecimal> expenses = new TreeMap<>();
+        deltas.forEach((key, delta) -> {
+            if (key.type() == Transaction.TransactionType.EXPENSE) {
+                expenses.merge(key.periodStart(), delta.getAmount(), BigDecimal::add);
+            }
+        });
+        expenses.forEach((periodStart, amount) -> applyExpenseDelta(userId, periodStart, amount));
+    }
+
+    @Transactional
+    public int rebuildForUser(String userId) {
+        budgetPeriodRepository.resetSpent(userId);
+
+        Map<LocalDate, BigDecimal> expenses = new TreeMap<>();
+        transactionRepository.sumByMonthAndCategory(userId).forEach(total -> {
+            if (total.getType() == Transaction.TransactionType.EXPENSE) {
+                expenses.merge(LocalDate.of(total.getPeriodYear(), total.getPeriodMonth(), 1), total.getTotal(),
+                        BigDecimal::add);
+            }
+        });
+        expenses.forEach((periodStart, spent) ->
+                budgetPeriodRepository.setSpent(UUID.randomUUID().toString(), userId, periodStart, spent));
+        return expenses.size();
+    }
+
+    @Scheduled(cron = "${budget-alerts.rebuild-cron:-}")
+    public void scheduledRebuild() {
+        rebuildAll();
+    }
+
+    public int rebuildAll() {
+        logger.info("Starting budget period rebuild");
+        long started = System.currentTimeMillis();
+
+        int users = 0;
+        int periods = 0;
+        String lastUserId = "";
+        List<String> userIds;
+        do {
+            userIds = userRepository.findIdsAfter(lastUserId, PageRequest.of(0, REBUILD_USER_BATCH_SIZE));
+            for (String userId : userIds) {
+                Integer rebuilt = transactionTemplate.execute(status -> rebuildForUser(userId));
+                periods += rebuilt != null ? rebuilt : 0;
+                users++;
+                lastUserId = userId;
+            }
+        } while (userIds.size() == REBUILD_USER_BATCH_SIZE);
+
+        logger.info("Completed budget period rebuild: {} users, {} periods in {} ms",
+                users, periods, System.currentTimeMillis() - started);
+        return users;
+    }
+
+    // One upsert of the month's running total, then at most one row read; thresholds are claimed with a
+    // conditional update so each one fires once per period no matter how many writers cross it together
+    private void applyExpenseDelta(String userId, LocalDate periodStart, BigDecimal delta) {
+        budgetPeriodRepository.applyDelta(UUID.randomUUID().toString(), userId, periodStart, delta);
+
+        if (delta.signum() <= 0 || !periodStart.equals(MonthlyRollupService.periodOf(LocalDateTime.now()))) {
+            return;
+        }
+
+        budgetPeriodRepository.findStatus(userId, periodStart).ifPresent(status -> {
+            if (status.getBudgetAmount().signum() <= 0) {
+                return;
+            }
+            BigDecimal percent = status.getSpent().multiply(HUNDRED)
+                    .divide(status.getBudgetAmount(), 2, RoundingMode.DOWN);
+            for (int threshold : thresholds) {
+                if (threshold <= status.getAlertedThreshold() || percent.compareTo(BigDecimal.valueOf(threshold)) < 0) {
+                    continue;
+                }
+                if (budgetPeriodRepository.claimThreshold(status.getPeriodId(), threshold) == 1) {
+                    eventPublisher.publishEvent(new BudgetThresholdEvent(userId, status.getBudgetId(),
+                            periodStart, threshold, status.getSpent(), status.getBudgetAmount()));
+                }
+            }
+        });
+    }
+}
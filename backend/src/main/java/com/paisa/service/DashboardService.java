@@ -3,15 +3,17 @@ package com.paisa.service;
 import com.paisa.dto.AccountDto;
 import com.paisa.dto.DashboardSummaryDto;
 import com.paisa.dto.TransactionDto;
+import com.paisa.entity.MonthlyRollup;
 import com.paisa.entity.Transaction;
 import com.paisa.repository.AccountRepository;
 import com.paisa.repository.BudgetRepository;
 import com.paisa.repository.TransactionRepository;
-import com.paisa.repository.UserRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -23,32 +25,24 @@ public class DashboardService {
     private final TransactionRepository transactionRepository;
     private final BudgetRepository budgetRepository;
     private final AccountService accountService;
-    
-    private final UserRepository userRepository;
+    private final MonthlyRollupService monthlyRollupService;
     
     public DashboardService(AccountRepository accountRepository,
                            TransactionRepository transactionRepository,
                            BudgetRepository budgetRepository,
                            AccountService accountService,
-                           UserRepository userRepository) {
+                           MonthlyRollupService monthlyRollupService) {
         this.accountRepository = accountRepository;
         this.transactionRepository = transactionRepository;
         this.budgetRepository = budgetRepository;
         this.accountService = accountService;
-        this.userRepository = userRepository;
-    }
-    
-    private String getUserIdFromEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getId();
+        this.monthlyRollupService = monthlyRollupService;
     }
     
-    public DashboardSummaryDto getDashboardSummary(String email) {
-        String userId = getUserIdFromEmail(email);
+    public DashboardSummaryDto getDashboardSummary(String userId) {
         DashboardSummaryDto summary = new DashboardSummaryDto();
         
-        List<AccountDto> accounts = accountService.getUserAccounts(email);
+        List<AccountDto> accounts = accountService.getUserAccounts(userId);
         summary.setAccounts(accounts);
         
         BigDecimal totalBalance = accounts.stream()
@@ -56,32 +50,22 @@ public class DashboardService {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         summary.setTotalBalance(totalBalance);
         
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startOfMonth = now.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
+        List<MonthlyRollup> monthlyRollups = monthlyRollupService
+                .getMonth(userId, MonthlyRollupService.periodOf(LocalDateTime.now()));
         
-        List<Transaction> monthlyTransactions = transactionRepository
-                .findByUserIdAndDateBetween(userId, startOfMonth, now);
+        MonthTotals month = summarizeMonth(monthlyRollups);
+        summary.setMonthlyIncome(month.income());
+        summary.setMonthlyExpense(month.expense());
         
-        BigDecimal monthlyIncome = monthlyTransactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.INCOME)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        summary.setMonthlyIncome(monthlyIncome);
-        
-        BigDecimal monthlyExpense = monthlyTransactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.EXPENSE)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        summary.setMonthlyExpense(monthlyExpense);
+        BigDecimal budgetSpent = month.expense();
         
         budgetRepository.findByUserId(userId).ifPresent(budget -> {
             summary.setBudgetAmount(budget.getAmount());
-            summary.setBudgetSpent(monthlyExpense);
+            summary.setBudgetSpent(budgetSpent);
         });
         
         List<TransactionDto> recentTransactions = transactionRepository
-                .findByUserIdOrderByDateDesc(userId).stream()
-                .limit(10)
+                .findPage(userId, null, null, null, null, null, null, null, null, null, PageRequest.of(0, 10)).stream()
                 .map(t -> {
                     TransactionDto dto = new TransactionDto();
                     dto.setId(t.getId());
@@ -96,16 +80,29 @@ public class DashboardService {
                 })
                 .collect(Collectors.toList());
         summary.setRecentTransactions(recentTransactions);
-        
-        Map<String, BigDecimal> expensesByCategory = monthlyTransactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.EXPENSE)
-                .collect(Collectors.groupingBy(
-                    Transaction::getCategory,
-                    Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)
-                ));
-        summary.setExpensesByCategory(expensesByCategory);
+        summary.setExpensesByCategory(month.expensesByCategory());
         
         return summary;
     }
+    
+    public static MonthTotals summarizeMonth(List<MonthlyRollup> rollups) {
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal expense = BigDecimal.ZERO;
+        Map<String, BigDecimal> expensesByCategory = new HashMap<>();
+        for (MonthlyRollup rollup : rollups) {
+            if (rollup.getType() == Transaction.TransactionType.INCOME) {
+                income = income.add(rollup.getAmount());
+            } else {
+                expense = expense.add(rollup.getAmount());
+                if (rollup.getTransactionCount() > 0) {
+                    expensesByCategory.merge(rollup.getCategory(), rollup.getAmount(), BigDecimal::add);
+                }
+            }
+        }
+        return new MonthTotals(income, expense, expensesByCategory);
+    }
+    
+    public record MonthTotals(BigDecimal income, BigDecimal expense, Map<String, BigDecimal> expensesByCategory) {
+    }
 }
 
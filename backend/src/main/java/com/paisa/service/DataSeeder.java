@@ -0,0 +1,397 @@
+package com.paisa.service;
+
+import com.paisa.entity.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Fills an empty local database with synthetic users, accounts, budgets and transactions through batched JDBC,
+// then rebuilds the monthly rollups from them. A given seed.random-seed always produces the same data.
+// Seeded users log in as seed<n>@paisa.test with seed.password.
+// Usage: mvn spring-boot:run -Dspring-boot.run.profiles=seed -Dspring-boot.run.arguments=--seed.users=5000
+@Component
+@Profile("seed")
+public class DataSeeder implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSeeder.class);
+
+    private static final String[] ACCOUNT_NAMES = {"Salary Account", "Savings", "Joint Account", "Travel Fund"};
+    private static final String[] DESCRIPTION_WORDS = {
+        "swiggy", "zomato", "uber", "ola", "amazon", "flipkart", "bigbasket", "dmart", "metro", "petrol",
+        "pharmacy", "clinic", "cinema", "netflix", "spotify", "electricity", "broadband", "mobile", "recharge",
+        "tuition", "books", "cafe", "dinner", "lunch", "groceries", "market", "order", "refund", "upi", "card"
+    };
+
+    // Everyday spending: category, share of transactions, median amount in rupees, spread of log(amount)
+    private static final SpendCategory[] SPENDING = {
+        new SpendCategory("Food", 30, 450, 0.8),
+        new SpendCategory("Transport", 15, 250, 0.7),
+        new SpendCategory("Shopping", 14, 1500, 1.0),
+        new SpendCategory("Bills", 8, 1800, 0.6),
+        new SpendCategory("Entertainment", 9, 700, 0.8),
+        new SpendCategory("Healthcare", 5, 1200, 1.0),
+        new SpendCategory("Education", 3, 3000, 0.9),
+        new SpendCategory("Other", 16, 600, 1.1)
+    };
+    private static final int SPENDING_WEIGHT = Arrays.stream(SPENDING).mapToInt(SpendCategory::weight).sum();
+
+    private static final String USER_SQL = "INSERT INTO users (id, email, name, password, role, created_at, "
+            + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String ACCOUNT_SQL = "INSERT INTO accounts (id, user_id, name, type, balance, is_default, "
+            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String BUDGET_SQL = "INSERT INTO budgets (id, user_id, amount, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final String BUDGET_PERIOD_SQL = "INSERT INTO budget_periods (id, user_id, period_start, spent, "
+            + "alerted_threshold, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String TRANSACTION_SQL = "INSERT INTO transactions (id, user_id, account_id, type, amount, "
+            + "description, date, category, is_recurring, recurring_interval, next_recurring_date, last_processed, "
+            + "recurring_source_id, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final MonthlyRollupService monthlyRollupService;
+    private final ConfigurableApplicationContext context;
+    private final int users;
+    private final int maxAccountsPerUser;
+    private final int transactionsPerUser;
+    private final int months;
+    private final int batchSize;
+    private final long randomSeed;
+    private final String password;
+    private final int[] alertThresholds;
+
+    public DataSeeder(JdbcTemplate jdbcTemplate,
+                      PlatformTransactionManager transactionManager,
+                      PasswordEncoder passwordEncoder,
+                      MonthlyRollupService monthlyRollupService,
+                      ConfigurableApplicationContext context,
+                      @Value("${seed.users:1000}") int users,
+                      @Value("${seed.max-accounts-per-user:3}") int maxAccountsPerUser,
+                      @Value("${seed.transactions-per-user:1000}") int transactionsPerUser,
+                      @Value("${seed.months:24}") int months,
+                      @Value("${seed.batch-size:1000}") int batchSize,
+                      @Value("${seed.random-seed:42}") long randomSeed,
+                      @Value("${seed.password:password123}") String password,
+                      @Value("${budget-alerts.thresholds:50,80,100}") int[] alertThresholds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.monthlyRollupService = monthlyRollupService;
+        this.context = context;
+        this.users = users;
+        this.maxAccountsPerUser = maxAccountsPerUser;
+        this.transactionsPerUser = transactionsPerUser;
+        this.months = months;
+        this.batchSize = batchSize;
+        this.randomSeed = randomSeed;
+        this.password = password;
+        this.alertThresholds = Arrays.stream(alertThresholds).sorted().toArray();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email = ?", Integer.class,
+                email(0));
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("Database is already seeded (" + email(0) + " exists)");
+        }
+
+        logger.info("Seeding {} users with about {} transactions each over {} months", users,
+                transactionsPerUser, months);
+        long started = System.nanoTime();
+        Random random = new Random(randomSeed);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        // One hash for every seeded user; BCrypt per row would dominate the run
+        String passwordHash = passwordEncoder.encode(password);
+        Batches batches = new Batches();
+
+        long transactions = 0;
+        for (int i = 0; i < users; i++) {
+            transactions += seedUser(i, random, now, passwordHash, batches);
+            if (batches.isFull()) {
+                batches.flush();
+            }
+            if ((i + 1) % 1000 == 0) {
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                logger.info("Seeded {} users, {} transactions ({} tx/s)", i + 1, transactions,
+                        elapsedMs > 0 ? transactions * 1000 / elapsedMs : transactions);
+            }
+        }
+        batches.flush();
+        long seededMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        logger.info("Inserted {} users and {} transactions in {} ms", users, transactions, seededMs);
+
+        monthlyRollupService.rebuildAll();
+        logger.info("Seeding finished in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        int exitCode = SpringApplication.exit(context, () -> 0);
+        System.exit(exitCode);
+    }
+
+    private int seedUser(int index, Random random, LocalDateTime now, String passwordHash, Batches batches) {
+        String userId = id(random);
+        LocalDateTime joined = now.minusMonths(months);
+        batches.users.add(new Object[]{userId, email(index), "Seed User " + index, passwordHash, "USER",
+                joined, joined});
+
+        int accountCount = 1 + random.nextInt(Math.max(1, maxAccountsPerUser));
+        String[] accountIds = new String[accountCount];
+        BigDecimal[] balances = new BigDecimal[accountCount];
+        for (int a = 0; a < accountCount; a++) {
+            accountIds[a] = id(random);
+            balances[a] = BigDecimal.ZERO;
+        }
+
+        Map<LocalDate, BigDecimal> monthlyExpenses = new TreeMap<>();
+        UserTransactions rows = new UserTransactions(userId, accountIds, balances, monthlyExpenses, now);
+        LocalDateTime windowStart = now.minusMonths(months);
+
+        // Fixed commitments: most users are salaried, many pay rent, and some carry subscriptions or a pass
+        BigDecimal salary = rupees(lognormal(random, 55_000, 0.5));
+        if (random.nextInt(10) < 9) {
+            rows.addRecurring(random, Transaction.TransactionType.INCOME, "Salary", "Monthly salary", salary,
+                    Transaction.RecurringInterval.MONTHLY, windowStart.withDayOfMonth(1).plusHours(9));
+        }
+        if (random.nextInt(10) < 6) {
+            rows.addRecurring(random, Transaction.TransactionType.EXPENSE, "Bills", "House rent",
+                    rupees(salary.doubleValue() * (0.2 + random.nextDouble() * 0.15)),
+                    Transaction.RecurringInterval.MONTHLY, windowStart.withDayOfMonth(5).plusHours(10));
+        }
+        int subscriptions = random.nextInt(4);
+        for (int s = 0; s < subscriptions; s++) {
+            rows.addRecurring(random, Transaction.TransactionType.EXPENSE, "Entertainment", "Subscription",
+                    rupees(149 + random.nextInt(6) * 100), Transaction.RecurringInterval.MONTHLY,
+                    windowStart.plusDays(random.nextInt(28)).plusHours(random.nextInt(24)));
+        }
+        if (random.nextInt(5) == 0) {
+            rows.addRecurring(random, Transaction.TransactionType.EXPENSE, "Transport", "Metro pass",
+                    rupees(500), Transaction.RecurringInterval.WEEKLY,
+                    windowStart.plusDays(random.nextInt(7)).plusHours(8));
+        }
+
+        // Activity per user is long-tailed around the configured mean
+        long windowMinutes = ChronoUnit.MINUTES.between(windowStart, now);
+        int everyday = (int) Math.round(lognormal(random, transactionsPerUser * Math.exp(-0.28), 0.75));
+        for (int t = 0; t < everyday; t++) {
+            LocalDateTime date = windowStart.plusMinutes((long) (random.nextDouble() * windowMinutes));
+            if (random.nextInt(25) == 0) {
+                rows.add(random, Transaction.TransactionType.INCOME, "Other", description(random),
+                        rupees(lognormal(random, 5_000, 0.9)), date, status(random));
+            } else {
+                SpendCategory category = spendCategory(random);
+                rows.add(random, Transaction.TransactionType.EXPENSE, category.name(), description(random),
+                        rupees(lognormal(random, category.medianAmount(), category.spread())), date,
+                        status(random));
+            }
+        }
+        batches.transactions.addAll(rows.rows);
+
+        for (int a = 0; a < accountCount; a++) {
+            batches.accounts.add(new Object[]{accountIds[a], userId, ACCOUNT_NAMES[a % ACCOUNT_NAMES.length],
+                    a % 2 == 0 ? "CURRENT" : "SAVINGS", balances[a], a == 0, joined, now});
+        }
+
+        LocalDate currentPeriod = MonthlyRollupService.periodOf(now);
+        BigDecimal budget = null;
+        if (random.nextInt(10) < 7) {
+            BigDecimal typicalMonth = monthlyExpenses.values().stream()
+                    .reduce(BigDecimal.ZERO, BigDecimal::add)
+                    .divide(BigDecimal.valueOf(Math.max(1, monthlyExpenses.size())), 0, RoundingMode.HALF_UP);
+            budget = typicalMonth.multiply(BigDecimal.valueOf(0.8 + random.nextDouble() * 0.5))
+                    .divide(BigDecimal.valueOf(500), 0, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(500))
+                    .max(BigDecimal.valueOf(500))
+                    .setScale(2, RoundingMode.UNNECESSARY);
+            batches.budgets.add(new Object[]{id(random), userId, budget, joined, now});
+        }
+        for (Map.Entry<LocalDate, BigDecimal> month : monthlyExpenses.entrySet()) {
+            int alerted = month.getKey().equals(currentPeriod) && budget != null
+                    ? crossedThreshold(month.getValue(), budget) : 0;
+            batches.budgetPeriods.add(new Object[]{id(random), userId, month.getKey(), month.getValue(), alerted,
+                    now, now});
+        }
+        return rows.rows.size();
+    }
+
+    // Thresholds already crossed count as alerted so the first write after seeding doesn't send a burst of emails
+    private int crossedThreshold(BigDecimal spent, BigDecimal budget) {
+        BigDecimal percent = spent.multiply(BigDecimal.valueOf(100)).divide(budget, 2, RoundingMode.DOWN);
+        int crossed = 0;
+        for (int threshold : alertThresholds) {
+            if (percent.compareTo(BigDecimal.valueOf(threshold)) >= 0) {
+                crossed = threshold;
+            }
+        }
+        return crossed;
+    }
+
+    private static SpendCategory spendCategory(Random random) {
+        int pick = random.nextInt(SPENDING_WEIGHT);
+        for (SpendCategory category : SPENDING) {
+            pick -= category.weight();
+            if (pick < 0) {
+                return category;
+            }
+        }
+        return SPENDING[SPENDING.length - 1];
+    }
+
+    private static Transaction.TransactionStatus status(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 97) {
+            return Transaction.TransactionStatus.COMPLETED;
+        }
+        return roll < 99 ? Transaction.TransactionStatus.PENDING : Transaction.TransactionStatus.FAILED;
+    }
+
+    private static String description(Random random) {
+        String first = DESCRIPTION_WORDS[random.nextInt(DESCRIPTION_WORDS.length)];
+        if (random.nextBoolean()) {
+            return first;
+        }
+        return first + " " + DESCRIPTION_WORDS[random.nextInt(DESCRIPTION_WORDS.length)];
+    }
+
+    private static double lognormal(Random random, double median, double spread) {
+        return median * Math.exp(spread * random.nextGaussian());
+    }
+
+    private static BigDecimal rupees(double amount) {
+        return BigDecimal.valueOf(Math.max(1, amount)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static String id(Random random) {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    private static String email(int index) {
+        return "seed" + index + "@paisa.test";
+    }
+
+    private record SpendCategory(String name, int weight, double medianAmount, double spread) {
+    }
+
+    // Rows for one user, with the balance and monthly expense totals they add up to
+    private static final class UserTransactions {
+
+        private final String userId;
+        private final String[] accountIds;
+        private final BigDecimal[] balances;
+        private final Map<LocalDate, BigDecimal> monthlyExpenses;
+        private final LocalDateTime now;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        UserTransactions(String userId, String[] accountIds, BigDecimal[] balances,
+                         Map<LocalDate, BigDecimal> monthlyExpenses, LocalDateTime now) {
+            this.userId = userId;
+            this.accountIds = accountIds;
+            this.balances = balances;
+            this.monthlyExpenses = monthlyExpenses;
+            this.now = now;
+        }
+
+        void add(Random random, Transaction.TransactionType type, String category, String description,
+                 BigDecimal amount, LocalDateTime date, Transaction.TransactionStatus status) {
+            // Most activity goes through the default account
+            int account = random.nextInt(4) == 0 ? random.nextInt(accountIds.length) : 0;
+            insert(id(random), account, type, category, description, amount, date, status, false, null, null, null,
+                    null);
+        }
+
+        // Fixed commitments are paid from the default account. The template is the first occurrence and later ones
+        // point back to it as the recurring job would create them
+        void addRecurring(Random random, Transaction.TransactionType type, String category, String description,
+                          BigDecimal amount, Transaction.RecurringInterval interval, LocalDateTime first) {
+            String templateId = id(random);
+            List<LocalDateTime> occurrences = new ArrayList<>();
+            for (LocalDateTime date = first; !date.isAfter(now); date = interval.advance(date)) {
+                occurrences.add(date);
+            }
+            if (occurrences.isEmpty()) {
+                return;
+            }
+            LocalDateTime last = occurrences.get(occurrences.size() - 1);
+            insert(templateId, 0, type, category, description, amount, first,
+                    Transaction.TransactionStatus.COMPLETED, true, interval, interval.advance(last), last, null);
+            for (LocalDateTime date : occurrences.subList(1, occurrences.size())) {
+                insert(id(random), 0, type, category, description, amount, date,
+                        Transaction.TransactionStatus.COMPLETED, false, null, null, null, templateId);
+            }
+        }
+
+        private void insert(String id, int account, Transaction.TransactionType type, String category,
+                            String description, BigDecimal amount, LocalDateTime date,
+                            Transaction.TransactionStatus status, boolean recurring,
+                            Transaction.RecurringInterval interval, LocalDateTime nextRecurringDate,
+                            LocalDateTime lastProcessed, String recurringSourceId) {
+            rows.add(new Object[]{id, userId, accountIds[account], type.name(), amount, description, date, category,
+                    recurring, interval != null ? interval.name() : null, nextRecurringDate, lastProcessed,
+                    recurringSourceId, status.name(), date, now});
+            if (status != Transaction.TransactionStatus.COMPLETED) {
+                return;
+            }
+            if (type == Transaction.TransactionType.INCOME) {
+                balances[account] = balances[account].add(amount);
+            } else {
+                balances[account] = balances[account].subtract(amount);
+                monthlyExpenses.merge(MonthlyRollupService.periodOf(date), amount, BigDecimal::add);
+            }
+        }
+    }
+
+    // Pending rows per table, flushed in foreign key order
+    private final class Batches {
+
+        private final List<Object[]> users = new ArrayList<>();
+        private final List<Object[]> accounts = new ArrayList<>();
+        private final List<Object[]> budgets = new ArrayList<>();
+        private final List<Object[]> transactions = new ArrayList<>();
+        private final List<Object[]> budgetPeriods = new ArrayList<>();
+
+        boolean isFull() {
+            return transactions.size() >= batchSize || users.size() >= batchSize
+                    || budgetPeriods.size() >= batchSize;
+        }
+
+        void flush() {
+            transactionTemplate.executeWithoutResult(status -> {
+                write(USER_SQL, users);
+                write(ACCOUNT_SQL, accounts);
+                write(BUDGET_SQL, budgets);
+                write(TRANSACTION_SQL, transactions);
+                write(BUDGET_PERIOD_SQL, budgetPeriods);
+            });
+        }
+
+        private void write(String sql, List<Object[]> rows) {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+            }
+            rows.clear();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.paisa.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+// Publishes Hibernate's session factory statistics (hibernate.generate_statistics) under the names used by
+// hibernate-micrometer, so the usual dashboards work without pulling in that module
+@Component
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+        counter(registry, "hibernate.sessions.open", "Sessions opened", Statistics::getSessionOpenCount);
+        counter(registry, "hibernate.transactions", "Transactions committed",
+                Statistics::getSuccessfulTransactionCount, "result", "success");
+        counter(registry, "hibernate.transactions", "Transactions rolled back",
+                stats -> stats.getTransactionCount() - stats.getSuccessfulTransactionCount(), "result", "failure");
+        counter(registry, "hibernate.flushes", "Session flushes", Statistics::getFlushCount);
+        counter(registry, "hibernate.connections.obtained", "JDBC connections obtained",
+                Statistics::getConnectCount);
+        counter(registry, "hibernate.statements", "JDBC statements prepared", Statistics::getPrepareStatementCount,
+                "status", "prepared");
+        counter(registry, "hibernate.statements", "JDBC statements closed", Statistics::getCloseStatementCount,
+                "status", "closed");
+        counter(registry, "hibernate.optimistic.failures", "Optimistic lock failures",
+                Statistics::getOptimisticFailureCount);
+
+        counter(registry, "hibernate.entities.loads", "Entities loaded", Statistics::getEntityLoadCount);
+        counter(registry, "hibernate.entities.fetches", "Entities fetched lazily", Statistics::getEntityFetchCount);
+        counter(registry, "hibernate.entities.inserts", "Entities inserted", Statistics::getEntityInsertCount);
+        counter(registry, "hibernate.entities.updates", "Entities updated", Statistics::getEntityUpdateCount);
+        counter(registry, "hibernate.entities.deletes", "Entities deleted", Statistics::getEntityDeleteCount);
+        counter(registry, "hibernate.collections.loads", "Collections loaded", Statistics::getCollectionLoadCount);
+        counter(registry, "hibernate.collections.fetches", "Collections fetched lazily",
+                Statistics::getCollectionFetchCount);
+
+        counter(registry, "hibernate.query.executions", "Queries executed", Statistics::getQueryExecutionCount);
+        Gauge.builder("hibernate.query.executions.max", statistics, Statistics::getQueryExecutionMaxTime)
+                .description("Slowest query so far")
+                .baseUnit("milliseconds")
+                .register(registry);
+        counter(registry, "hibernate.query.natural.id.executions", "Natural id queries executed",
+                Statistics::getNaturalIdQueryExecutionCount);
+
+        counter(registry, "hibernate.second.level.cache.requests", "Second-level cache hits",
+                Statistics::getSecondLevelCacheHitCount, "result", "hit");
+        counter(registry, "hibernate.second.level.cache.requests", "Second-level cache misses",
+                Statistics::getSecondLevelCacheMissCount, "result", "miss");
+        counter(registry, "hibernate.second.level.cache.puts", "Second-level cache puts",
+                Statistics::getSecondLevelCachePutCount);
+        counter(registry, "hibernate.cache.query.requests", "Query cache hits",
+                Statistics::getQueryCacheHitCount, "result", "hit");
+        counter(registry, "hibernate.cache.query.requests", "Query cache misses",
+                Statistics::getQueryCacheMissCount, "result", "miss");
+        counter(registry, "hibernate.cache.query.puts", "Query cache puts", Statistics::getQueryCachePutCount);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description,
+                         ToDoubleFunction<Statistics> count, String... tags) {
+        FunctionCounter.builder(name, statistics, count)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,267 @@
+package com.paisa.service;
+
+import com.paisa.dto.AIRecommendationDto;
+import com.paisa.dto.InsightsDto;
+import com.paisa.entity.MonthlyRollup;
+import com.paisa.entity.Transaction;
+import com.paisa.repository.BudgetPeriodRepository;
+import com.paisa.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Rule-based findings computed in-process from the spend profile, served while Gemini output is pending
+@Service
+public class InsightService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InsightService.class);
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final int MIN_GROWTH_PERCENT = 20;
+    private static final int MAX_GROWING_CATEGORIES = 2;
+
+    private final AIService aiService;
+    private final RecommendationPrecomputeService precomputeService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final BudgetPeriodRepository budgetPeriodRepository;
+    private final TransactionRepository transactionRepository;
+    private final ExecutorService storeWorkers;
+
+    public InsightService(AIService aiService,
+                          RecommendationPrecomputeService precomputeService,
+                          MonthlyRollupService monthlyRollupService,
+                          BudgetPeriodRepository budgetPeriodRepository,
+                          TransactionRepository transactionRepository,
+                          @Value("${ai.store.workers:2}") int storeWorkerCount,
+                          @Value("${ai.store.queue-size:100}") int storeQueueSize) {
+        this.aiService = aiService;
+        this.precomputeService = precomputeService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.budgetPeriodRepository = budgetPeriodRepository;
+        this.transactionRepository = transactionRepository;
+        this.storeWorkers = new ThreadPoolExecutor(storeWorkerCount, storeWorkerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(storeQueueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "ai-store-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        storeWorkers.shutdown();
+    }
+
+    // Never waits on Gemini: cached output is merged in, otherwise a background call is started for the next poll
+    public InsightsDto getInsights(String userId) {
+        SpendProfile profile = aiService.loadProfile(userId);
+        List<String> insights = computeInsights(userId, profile);
+        if (profile.isEmpty()) {
+            return new InsightsDto(insights, null, null, InsightsDto.AIStatus.UNAVAILABLE);
+        }
+
+        String fingerprint = aiService.fingerprint(profile);
+        AIRecommendationDto cached = aiService.getCachedRecommendations(userId, profile);
+        if (cached == null) {
+            cached = precomputeService.findFresh(userId, fingerprint);
+        }
+        if (cached != null) {
+            return new InsightsDto(insights, cached.getRecommendations(), cached.getSummary(),
+                    InsightsDto.AIStatus.READY);
+        }
+
+        CompletableFuture<AIRecommendationDto> pending = refresh(userId, profile, fingerprint);
+        if (pending.isCompletedExceptionally()) {
+            return new InsightsDto(insights, null, summarize(profile), InsightsDto.AIStatus.UNAVAILABLE);
+        }
+        if (pending.isDone()) {
+            AIRecommendationDto recommendations = pending.join();
+            return new InsightsDto(insights, recommendations.getRecommendations(), recommendations.getSummary(),
+                    InsightsDto.AIStatus.READY);
+        }
+        return new InsightsDto(insights, null, summarize(profile), InsightsDto.AIStatus.PENDING);
+    }
+
+    // Stored recommendations are served as-is until stale; otherwise Gemini is asked again, falling back to
+    // the local insights rather than generic advice
+    public CompletableFuture<AIRecommendationDto> getRecommendationsAsync(String userId) {
+        SpendProfile profile = aiService.loadProfile(userId);
+        if (profile.isEmpty()) {
+            return CompletableFuture.completedFuture(aiService.getDefaultRecommendations());
+        }
+
+        String fingerprint = aiService.fingerprint(profile);
+        AIRecommendationDto stored = precomputeService.findFresh(userId, fingerprint);
+        if (stored != null) {
+            return CompletableFuture.completedFuture(stored);
+        }
+
+        AIRecommendationDto local = new AIRecommendationDto(computeInsights(userId, profile), summarize(profile));
+        return refresh(userId, profile, fingerprint)
+                .exceptionally(e -> {
+                    logger.warn("AI recommendations unavailable for user {}, serving local insights: {}", userId,
+                            e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                    return local.getRecommendations().isEmpty() ? aiService.getDefaultRecommendations() : local;
+                });
+    }
+
+    // Fresh Gemini output is written back on the store workers, off the HTTP client thread and the common pool,
+    // so the next visit is served from storage; when their queue is full the write is skipped, not the answer
+    private CompletableFuture<AIRecommendationDto> refresh(String userId, SpendProfile profile, String fingerprint) {
+        AIRecommendationDto defaults = aiService.getDefaultRecommendations();
+        CompletableFuture<AIRecommendationDto> call = aiService.getRecommendationsAsync(userId, profile);
+        return call
+                .thenApplyAsync(recommendations -> {
+                    if (!recommendations.equals(defaults)) {
+                        try {
+                            precomputeService.store(userId, fingerprint, recommendations);
+                        } catch (RuntimeException e) {
+                            logger.warn("Failed to store recommendations for user {}: {}", userId, e.getMessage());
+                        }
+                    }
+                    return recommendations;
+                }, storeWorkers)
+                .exceptionallyCompose(e -> {
+                    if (!(e.getCause() instanceof RejectedExecutionException)) {
+                        return CompletableFuture.failedFuture(e);
+                    }
+                    logger.warn("Recommendation store queue is full; not storing recommendations for user {}", userId);
+                    return call;
+                });
+    }
+
+    public List<String> computeInsights(String userId, SpendProfile profile) {
+        List<String> insights = new ArrayList<>();
+        if (profile.isEmpty()) {
+            return insights;
+        }
+
+        addIncomeExpenseRatio(profile, insights);
+        addTopCategory(profile, insights);
+        addGrowingCategories(userId, insights);
+        addBudgetBurnRate(userId, insights);
+        addRecurringShare(userId, profile, insights);
+        return insights;
+    }
+
+    private String summarize(SpendProfile profile) {
+        return String.format("Based on ₹%.2f of income and ₹%.2f of expenses over the last 3 months",
+                profile.totalIncome(), profile.totalExpense());
+    }
+
+    private void addIncomeExpenseRatio(SpendProfile profile, List<String> insights) {
+        BigDecimal income = profile.totalIncome();
+        BigDecimal expense = profile.totalExpense();
+        if (income.signum() > 0) {
+            if (expense.compareTo(income) > 0) {
+                insights.add(String.format("Your expenses exceeded your income by ₹%.2f over the last 3 months",
+                        expense.subtract(income)));
+            } else {
+                insights.add(String.format("You spent %d%% of your income over the last 3 months, saving ₹%.2f",
+                        percent(expense, income), income.subtract(expense)));
+            }
+        } else if (expense.signum() > 0) {
+            insights.add(String.format("No income was recorded in the last 3 months against ₹%.2f of expenses",
+                    expense));
+        }
+    }
+
+    private void addTopCategory(SpendProfile profile, List<String> insights) {
+        if (profile.totalExpense().signum() <= 0) {
+            return;
+        }
+        profile.expensesByCategory().stream()
+                .max(Comparator.comparing(TransactionRepository.CategoryTotal::getTotal))
+                .ifPresent(top -> insights.add(String.format("%s is your largest expense category at ₹%.2f (%d%% of spending)",
+                        top.getCategory(), top.getTotal(), percent(top.getTotal(), profile.totalExpense()))));
+    }
+
+    // Compares the last two complete months so a partial current month does not read as a drop
+    private void addGrowingCategories(String userId, List<String> insights) {
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+        Map<String, BigDecimal> recent = monthlyExpenses(userId, lastMonth.atDay(1));
+        Map<String, BigDecimal> previous = monthlyExpenses(userId, lastMonth.minusMonths(1).atDay(1));
+        String monthName = lastMonth.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+
+        recent.entrySet().stream()
+                .filter(entry -> {
+                    BigDecimal before = previous.get(entry.getKey());
+                    return before != null && before.signum() > 0
+                            && percent(entry.getValue().subtract(before), before) >= MIN_GROWTH_PERCENT;
+                })
+                .sorted(Comparator.comparing((Map.Entry<String, BigDecimal> entry) ->
+                        entry.getValue().subtract(previous.get(entry.getKey()))).reversed())
+                .limit(MAX_GROWING_CATEGORIES)
+                .forEach(entry -> {
+                    BigDecimal before = previous.get(entry.getKey());
+                    insights.add(String.format("%s spending rose %d%% in %s (₹%.2f vs ₹%.2f)", entry.getKey(),
+                            percent(entry.getValue().subtract(before), before), monthName, entry.getValue(), before));
+                });
+    }
+
+    private void addBudgetBurnRate(String userId, List<String> insights) {
+        LocalDate today = LocalDate.now();
+        budgetPeriodRepository.findStatus(userId, today.withDayOfMonth(1)).ifPresent(status -> {
+            BigDecimal budget = status.getBudgetAmount();
+            BigDecimal spent = status.getSpent();
+            if (budget.signum() <= 0 || spent.signum() <= 0) {
+                return;
+            }
+            BigDecimal projected = spent.multiply(BigDecimal.valueOf(today.lengthOfMonth()))
+                    .divide(BigDecimal.valueOf(today.getDayOfMonth()), 2, RoundingMode.HALF_UP);
+            if (projected.compareTo(budget) > 0) {
+                insights.add(String.format("At your current pace you will spend ₹%.2f this month, %d%% of your ₹%.2f budget",
+                        projected, percent(projected, budget), budget));
+            } else {
+                insights.add(String.format("You have used %d%% of your monthly budget with %d%% of the month gone",
+                        percent(spent, budget), percent(BigDecimal.valueOf(today.getDayOfMonth()),
+                                BigDecimal.valueOf(today.lengthOfMonth()))));
+            }
+        });
+    }
+
+    private void addRecurringShare(String userId, SpendProfile profile, List<String> insights) {
+        if (profile.totalExpense().signum() <= 0) {
+            return;
+        }
+        BigDecimal recurring = transactionRepository.sumRecurringExpenses(userId, profile.from(), profile.to());
+        if (recurring != null && recurring.signum() > 0) {
+            insights.add(String.format("Recurring payments make up %d%% of your spending (₹%.2f over the last 3 months)",
+                    percent(recurring, profile.totalExpense()), recurring));
+        }
+    }
+
+    private Map<String, BigDecimal> monthlyExpenses(String userId, LocalDate periodStart) {
+        Map<String, BigDecimal> expenses = new HashMap<>();
+        for (MonthlyRollup rollup : monthlyRollupService.getMonth(userId, periodStart)) {
+            if (rollup.getType() == Transaction.TransactionType.EXPENSE && rollup.getTransactionCount() > 0) {
+                expenses.merge(rollup.getCategory(), rollup.getAmount(), BigDecimal::add);
+            }
+        }
+        return expenses;
+    }
+
+    private int percent(BigDecimal part, BigDecimal whole) {
+        return part.multiply(HUNDRED).divide(whole, 0, RoundingMode.HALF_UP).intValue();
+    }
+}
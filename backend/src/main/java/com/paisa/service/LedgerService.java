@@ -0,0 +1,118 @@
+package com.paisa.service;
+
+import com.paisa.dto.AccountBalanceDto;
+import com.paisa.entity.Account;
+import com.paisa.entity.BalanceSnapshot;
+import com.paisa.entity.LedgerEntry;
+import com.paisa.repository.AccountRepository;
+import com.paisa.repository.BalanceSnapshotRepository;
+import com.paisa.repository.LedgerEntryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+public class LedgerService {
+    
+    private final AccountRepository accountRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final EntityManager entityManager;
+    private final long snapshotEvery;
+    
+    public LedgerService(AccountRepository accountRepository,
+                         LedgerEntryRepository ledgerEntryRepository,
+                         BalanceSnapshotRepository balanceSnapshotRepository,
+                         EntityManager entityManager,
+                         @Value("${ledger.snapshot-every:100}") long snapshotEvery) {
+        this.accountRepository = accountRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.entityManager = entityManager;
+        this.snapshotEvery = snapshotEvery;
+    }
+    
+    // The balance UPDATE locks the account row first, so sequences are gap-free and in commit order per account
+    @Transactional
+    public void post(String accountId, BigDecimal delta, LedgerEntry.Kind kind, String transactionId) {
+        if (delta.signum() == 0) {
+            return;
+        }
+        accountRepository.applyBalanceDelta(accountId, delta);
+        append(accountId, delta, kind, transactionId);
+    }
+    
+    // Records the balance an account was created with; the column itself is written by the insert
+    @Transactional
+    public void open(String accountId, BigDecimal balance) {
+        if (balance.signum() != 0) {
+            append(accountId, balance, LedgerEntry.Kind.OPENING, null);
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public AccountBalanceDto getBalanceAsOf(String accountId, LocalDateTime asOf) {
+        Optional<BalanceSnapshot> snapshot = balanceSnapshotRepository
+                .findFirstByAccountIdAndTakenAtLessThanEqualOrderBySequenceDesc(accountId, asOf);
+        long afterSequence = snapshot.map(BalanceSnapshot::getSequence).orElse(0L);
+        BigDecimal base = snapshot.map(BalanceSnapshot::getBalance).orElse(BigDecimal.ZERO);
+        
+        LedgerEntryRepository.Tail tail = ledgerEntryRepository.sumTail(accountId, afterSequence, asOf);
+        long sequence = tail.getLastSequence() != null ? tail.getLastSequence() : afterSequence;
+        if (sequence == 0 && ledgerEntryRepository.findLastSequence(accountId) == 0) {
+            // No history recorded yet: the balance has not moved since before the ledger existed
+            BigDecimal current = accountRepository.findBalanceById(accountId)
+                    .orElseThrow(() -> new RuntimeException("Account not found"));
+            return new AccountBalanceDto(accountId, asOf, current, 0, 0);
+        }
+        return new AccountBalanceDto(accountId, asOf, base.add(tail.getTotal()), sequence, tail.getEntryCount());
+    }
+    
+    // Rewrites Account.balance from the latest snapshot plus the tail, under the row lock posts also take
+    @Transactional
+    public AccountBalanceDto rebuildBalance(String accountId) {
+        Account account = entityManager.find(Account.class, accountId, LockModeType.PESSIMISTIC_WRITE);
+        if (account == null) {
+            throw new RuntimeException("Account not found");
+        }
+        AccountBalanceDto balance = getBalanceAsOf(accountId, LocalDateTime.now());
+        accountRepository.setBalance(accountId, balance.getBalance());
+        return balance;
+    }
+    
+    @Transactional
+    public void purge(String accountId) {
+        ledgerEntryRepository.deleteByAccountId(accountId);
+        balanceSnapshotRepository.deleteByAccountId(accountId);
+    }
+    
+    private void append(String accountId, BigDecimal amount, LedgerEntry.Kind kind, String transactionId) {
+        LocalDateTime now = LocalDateTime.now();
+        long last = ledgerEntryRepository.findLastSequence(accountId);
+        long sequence = last;
+        if (last == 0 && kind != LedgerEntry.Kind.OPENING) {
+            // Accounts that predate the ledger start it with whatever balance they had before this change
+            BigDecimal opening = currentBalance(accountId).subtract(amount);
+            if (opening.signum() != 0) {
+                entityManager.persist(new LedgerEntry(null, accountId, ++sequence, LedgerEntry.Kind.OPENING,
+                        opening, null, now));
+            }
+        }
+        entityManager.persist(new LedgerEntry(null, accountId, ++sequence, kind, amount, transactionId, now));
+        
+        if (sequence / snapshotEvery > last / snapshotEvery) {
+            entityManager.persist(new BalanceSnapshot(null, accountId, sequence, currentBalance(accountId), now));
+        }
+    }
+    
+    private BigDecimal currentBalance(String accountId) {
+        return accountRepository.findBalanceById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+    }
+}
@@ -0,0 +1,161 @@
+package com.paisa.service;
+
+import com.paisa.entity.MonthlyRollup;
+import com.paisa.entity.Transaction;
+import com.paisa.repository.MonthlyRollupRepository;
+import com.paisa.repository.TransactionRepository;
+import com.paisa.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+public class MonthlyRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonthlyRollupService.class);
+
+    private static final int REBUILD_USER_BATCH_SIZE = 500;
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::periodStart)
+            .thenComparing(Key::type)
+            .thenComparing(Key::category);
+
+    private final MonthlyRollupRepository rollupRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public MonthlyRollupService(MonthlyRollupRepository rollupRepository,
+                               TransactionRepository transactionRepository,
+                               UserRepository userRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public static LocalDate periodOf(LocalDateTime date) {
+        return date.toLocalDate().withDayOfMonth(1);
+    }
+
+    @Transactional
+    public void record(Transaction transaction) {
+        applyDelta(transaction.getUser().getId(), transaction.getDate(), transaction.getType(),
+                transaction.getCategory(), transaction.getAmount(), 1);
+    }
+
+    @Transactional
+    public void unrecord(String userId, LocalDateTime date, Transaction.TransactionType type,
+                         String category, BigDecimal amount) {
+        applyDelta(userId, date, type, category, amount.negate(), -1);
+    }
+
+    @Transactional
+    public void applyDelta(String userId, LocalDateTime date, Transaction.TransactionType type,
+                           String category, BigDecimal amount, long count) {
+        rollupRepository.applyDelta(UUID.randomUUID().toString(), userId, periodOf(date), type.name(), category,
+                amount, count);
+    }
+
+    // Keys are applied in a fixed order so that concurrent writers take the row locks in the same order
+    @Transactional
+    public void applyDeltas(String userId, Map<Key, Delta> deltas) {
+        Map<Key, Delta> ordered = new TreeMap<>(KEY_ORDER);
+        ordered.putAll(deltas);
+        ordered.forEach((key, delta) -> rollupRepository.applyDelta(UUID.randomUUID().toString(), userId,
+                key.periodStart(), key.type().name(), key.category(), delta.getAmount(), delta.getCount()));
+    }
+
+    public List<MonthlyRollup> getMonth(String userId, LocalDate periodStart) {
+        return rollupRepository.findByUserIdAndPeriodStart(userId, periodStart);
+    }
+
+    @Transactional
+    public int rebuildForUser(String userId) {
+        rollupRepository.deleteByUserId(userId);
+
+        List<MonthlyRollup> rollups = transactionRepository.sumByMonthAndCategory(userId).stream()
+                .map(total -> {
+                    MonthlyRollup rollup = new MonthlyRollup();
+                    rollup.setUser(userRepository.getReferenceById(userId));
+                    rollup.setPeriodStart(LocalDate.of(total.getPeriodYear(), total.getPeriodMonth(), 1));
+                    rollup.setType(total.getType());
+                    rollup.setCategory(total.getCategory());
+                    rollup.setAmount(total.getTotal());
+                    rollup.setTransactionCount(total.getTransactionCount());
+                    return rollup;
+                })
+                .collect(Collectors.toList());
+
+        rollupRepository.saveAll(rollups);
+        return rollups.size();
+    }
+
+    @Scheduled(cron = "${rollup.rebuild-cron:-}")
+    public void scheduledRebuild() {
+        rebuildAll();
+    }
+
+    public int rebuildAll() {
+        logger.info("Starting monthly rollup rebuild");
+        long started = System.currentTimeMillis();
+
+        int users = 0;
+        int rows = 0;
+        String lastUserId = "";
+        List<String> userIds;
+        do {
+            userIds = userRepository.findIdsAfter(lastUserId, PageRequest.of(0, REBUILD_USER_BATCH_SIZE));
+            for (String userId : userIds) {
+                Integer rebuilt = transactionTemplate.execute(status -> rebuildForUser(userId));
+                rows += rebuilt != null ? rebuilt : 0;
+                users++;
+                lastUserId = userId;
+            }
+        } while (userIds.size() == REBUILD_USER_BATCH_SIZE);
+
+        logger.info("Completed monthly rollup rebuild: {} users, {} rows in {} ms",
+                users, rows, System.currentTimeMillis() - started);
+        return users;
+    }
+
+    public record Key(LocalDate periodStart, Transaction.TransactionType type, String category) {
+    }
+
+    public static class Delta {
+        private BigDecimal amount = BigDecimal.ZERO;
+        private long count;
+
+        public void add(BigDecimal value) {
+            add(value, 1);
+        }
+
+        public void add(BigDecimal value, long transactions) {
+            amount = amount.add(value);
+            count += transactions;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.paisa.service;
+
+import com.paisa.dto.JobRunDto;
+import com.paisa.dto.PlatformStatsDto;
+import com.paisa.entity.Account;
+import com.paisa.entity.JobCheckpoint;
+import com.paisa.entity.PlatformStat;
+import com.paisa.entity.Transaction;
+import com.paisa.repository.AccountRepository;
+import com.paisa.repository.JobCheckpointRepository;
+import com.paisa.repository.PlatformStatRepository;
+import com.paisa.repository.StatsDirtyDayRepository;
+import com.paisa.repository.TransactionRepository;
+import com.paisa.util.CursorCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+// Platform-wide statistics kept in platform_stats; admin reads never touch the transactions table
+@Service
+public class PlatformStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlatformStatsService.class);
+
+    private static final String JOB_NAME = "platform-stats";
+    private static final String WATERMARK_KEY = "watermark";
+    private static final String PARTITION_KEY = "transactions";
+    private static final Set<PlatformStat.Metric> DAILY_METRICS =
+            EnumSet.of(PlatformStat.Metric.TRANSACTIONS, PlatformStat.Metric.ACTIVE_USERS);
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final PlatformStatRepository platformStatRepository;
+    private final StatsDirtyDayRepository dirtyDayRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration watermarkLag;
+    private final BigDecimal[] bucketBounds;
+    private final List<String> bucketLabels;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicReference<JobRunDto> lastRun = new AtomicReference<>();
+    private final Timer runTimer;
+    private final Counter changedRowsCounter;
+    private final Counter daysCounter;
+
+    public PlatformStatsService(TransactionRepository transactionRepository,
+                                AccountRepository accountRepository,
+                                PlatformStatRepository platformStatRepository,
+                                StatsDirtyDayRepository dirtyDayRepository,
+                                JobCheckpointRepository checkpointRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${stats.chunk-size:1000}") int chunkSize,
+                                @Value("${stats.watermark-lag:1m}") Duration watermarkLag,
+                                @Value("${stats.balance-buckets:0,1000,10000,100000,1000000}") BigDecimal[] bucketBounds) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.platformStatRepository = platformStatRepository;
+        this.dirtyDayRepository = dirtyDayRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.watermarkLag = watermarkLag;
+        this.bucketBounds = Arrays.stream(bucketBounds).sorted().toArray(BigDecimal[]::new);
+        this.bucketLabels = new ArrayList<>();
+        for (int i = 0; i <= this.bucketBounds.length; i++) {
+            bucketLabels.add(bucketLabel(lowerBound(i), upperBound(i)));
+        }
+
+        this.runTimer = meterRegistry.timer("paisa.stats.run.duration");
+        this.changedRowsCounter = meterRegistry.counter("paisa.stats.rows.changed");
+        this.daysCounter = meterRegistry.counter("paisa.stats.days.recomputed");
+        meterRegistry.gauge("paisa.stats.last.run.throughput", lastRun,
+                run -> run.get() != null ? run.get().getItemsPerSecond() : 0);
+    }
+
+    @Scheduled(cron = "${stats.cron:0 */15 * * * ?}") // Every 15 minutes
+    public void scheduledRun() {
+        refresh();
+    }
+
+    public JobRunDto getLastRun() {
+        return lastRun.get();
+    }
+
+    // Called by the write path in the same transaction as a delete, or an update that moves a transaction to
+    // another day, since the watermark only sees rows that still exist
+    @Transactional
+    public void markDirty(Collection<LocalDate> days) {
+        LocalDateTime now = LocalDateTime.now();
+        for (LocalDate day : new TreeSet<>(days)) {
+            dirtyDayRepository.mark(day, now);
+        }
+    }
+
+    public JobRunDto refresh() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Platform stats refresh already in progress, skipping");
+            return null;
+        }
+        try {
+            return runTimer.record(this::runOnce);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public PlatformStatsDto getStats(LocalDate from, LocalDate to, Transaction.TransactionType categoryType,
+                                     int topCategories) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range must be between 1 and " + MAX_RANGE_DAYS + " days");
+        }
+
+        Map<LocalDate, PlatformStatsDto.DailyStats> daily = new TreeMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            daily.put(day, new PlatformStatsDto.DailyStats(day, 0, 0, BigDecimal.ZERO, 0, BigDecimal.ZERO));
+        }
+        for (PlatformStatRepository.DailyTotal total : platformStatRepository.sumByDay(DAILY_METRICS, from, to)) {
+            PlatformStatsDto.DailyStats stats = daily.get(total.getStatDate());
+            if (total.getMetric() == PlatformStat.Metric.ACTIVE_USERS) {
+                stats.setActiveUsers(total.getItemCount());
+            } else if (Transaction.TransactionType.INCOME.name().equals(total.getDimension())) {
+                stats.setIncomeCount(total.getItemCount());
+                stats.setIncomeVolume(total.getAmount());
+            } else {
+                stats.setExpenseCount(total.getItemCount());
+                stats.setExpenseVolume(total.getAmount());
+            }
+        }
+
+        List<PlatformStatsDto.CategoryStats> categories = platformStatRepository.findTopCategories(from, to,
+                        categoryType != null ? categoryType.name() : null, PageRequest.of(0, topCategories))
+                .stream()
+                .map(total -> new PlatformStatsDto.CategoryStats(
+                        Transaction.TransactionType.valueOf(total.getDimension()), total.getLabel(),
+                        total.getItemCount(), total.getAmount()))
+                .collect(Collectors.toList());
+
+        List<PlatformStatsDto.BalanceBucket> balances = platformStatRepository
+                .findByMetric(PlatformStat.Metric.ACCOUNT_BALANCES).stream()
+                .sorted(Comparator.comparing(PlatformStat::getDimension)
+                        .thenComparing(stat -> bucketOrder(stat.getLabel())))
+                .map(stat -> new PlatformStatsDto.BalanceBucket(Account.AccountType.valueOf(stat.getDimension()),
+                        stat.getLabel(), stat.getItemCount(), stat.getAmount()))
+                .collect(Collectors.toList());
+
+        LocalDateTime refreshedAt = checkpointRepository.findByJobNameAndRunKey(JOB_NAME, WATERMARK_KEY).stream()
+                .map(JobCheckpoint::getUpdatedAt)
+                .findFirst()
+                .orElse(null);
+        return new PlatformStatsDto(from, to, refreshedAt, new ArrayList<>(daily.values()), categories, balances);
+    }
+
+    // Rows changed after the stored (updatedAt, id) watermark name the days to recompute. The scan stops
+    // watermark-lag short of now so rows in transactions that have not committed yet are picked up next run
+    private JobRunDto runOnce() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        LocalDateTime until = startedAt.minus(watermarkLag);
+        JobCheckpoint watermark = loadWatermark();
+        CursorCodec.Cursor position = watermark.getLastProcessedId() != null
+                ? CursorCodec.decode(watermark.getLastProcessedId())
+                : null;
+        logger.info("Starting platform stats refresh from watermark {}", position != null ? position.date() : "start");
+
+        Set<LocalDate> recomputed = new HashSet<>();
+        long scanned = 0;
+        long written = 0;
+        while (true) {
+            List<TransactionRepository.ChangedRow> rows = transactionRepository.findChangedSince(
+                    position != null ? position.date() : null,
+                    position != null ? position.id() : null,
+                    until, PageRequest.of(0, chunkSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            Set<LocalDate> days = rows.stream()
+                    .map(row -> row.getDate().toLocalDate())
+                    .filter(day -> !recomputed.contains(day))
+                    .collect(Collectors.toCollection(TreeSet::new));
+            TransactionRepository.ChangedRow last = rows.get(rows.size() - 1);
+            String mark = CursorCodec.encode(last.getUpdatedAt(), last.getId());
+            Integer chunkWritten = transactionTemplate.execute(status -> {
+                int count = recomputeDays(days);
+                checkpointRepository.advance(watermark.getId(), mark, rows.size(), false);
+                return count;
+            });
+
+            written += chunkWritten;
+            scanned += rows.size();
+            recomputed.addAll(days);
+            position = new CursorCodec.Cursor(last.getUpdatedAt(), last.getId());
+            if (rows.size() < chunkSize) {
+                break;
+            }
+        }
+
+        // Marks newer than the cutoff may belong to writes that have not committed yet
+        while (true) {
+            List<LocalDate> dirty = dirtyDayRepository.findMarkedBefore(until, PageRequest.of(0, chunkSize));
+            if (dirty.isEmpty()) {
+                break;
+            }
+            Integer chunkWritten = transactionTemplate.execute(status -> {
+                int count = recomputeDays(dirty);
+                dirtyDayRepository.clear(dirty, until);
+                return count;
+            });
+            written += chunkWritten;
+            recomputed.addAll(dirty);
+        }
+
+        Integer balanceRows = transactionTemplate.execute(status -> recomputeBalances(startedAt.toLocalDate()));
+        written += balanceRows;
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        double perSecond = durationMs > 0 ? scanned * 1000.0 / durationMs : scanned;
+        JobRunDto run = new JobRunDto(JOB_NAME, startedAt, durationMs, scanned, recomputed.size(), written, 0,
+                perSecond);
+        lastRun.set(run);
+        changedRowsCounter.increment(scanned);
+        daysCounter.increment(recomputed.size());
+
+        logger.info("Completed platform stats refresh: {} changed rows, {} days recomputed, {} stat rows written "
+                + "in {} ms ({} rows/s)", scanned, recomputed.size(), written, durationMs,
+                String.format("%.1f", perSecond));
+        return run;
+    }
+
+    private JobCheckpoint loadWatermark() {
+        return checkpointRepository.findByJobNameAndRunKey(JOB_NAME, WATERMARK_KEY).stream()
+                .findFirst()
+                .orElseGet(() -> {
+                    JobCheckpoint checkpoint = new JobCheckpoint();
+                    checkpoint.setJobName(JOB_NAME);
+                    checkpoint.setRunKey(WATERMARK_KEY);
+                    checkpoint.setPartitionKey(PARTITION_KEY);
+                    return checkpointRepository.save(checkpoint);
+                });
+    }
+
+    // Each day is rebuilt from an indexed date range, replacing its previous rows
+    private int recomputeDays(Collection<LocalDate> days) {
+        List<PlatformStat> stats = new ArrayList<>();
+        for (LocalDate day : days) {
+            LocalDateTime start = day.atStartOfDay();
+            LocalDateTime end = day.plusDays(1).atStartOfDay();
+            platformStatRepository.deleteDay(day, DAILY_METRICS);
+
+            for (TransactionRepository.TypeCategoryTotal total :
+                    transactionRepository.sumAllByTypeAndCategory(start, end)) {
+                stats.add(newStat(PlatformStat.Metric.TRANSACTIONS, day, total.getType().name(),
+                        total.getCategory(), total.getTransactionCount(), total.getTotal()));
+            }
+            long activeUsers = transactionRepository.countActiveUsers(start, end);
+            if (activeUsers > 0) {
+                stats.add(newStat(PlatformStat.Metric.ACTIVE_USERS, day, "", "", activeUsers, BigDecimal.ZERO));
+            }
+        }
+        platformStatRepository.saveAll(stats);
+        return stats.size();
+    }
+
+    // The distribution is a snapshot of current balances; one grouped query per bucket reads only accounts
+    private int recomputeBalances(LocalDate today) {
+        platformStatRepository.deleteMetric(PlatformStat.Metric.ACCOUNT_BALANCES);
+        List<PlatformStat> stats = new ArrayList<>();
+        for (int i = 0; i <= bucketBounds.length; i++) {
+            for (AccountRepository.BalanceTotal total :
+                    accountRepository.sumBalancesBetween(lowerBound(i), upperBound(i))) {
+                stats.add(newStat(PlatformStat.Metric.ACCOUNT_BALANCES, today, total.getType().name(),
+                        bucketLabels.get(i), total.getAccountCount(), total.getTotal()));
+            }
+        }
+        platformStatRepository.saveAll(stats);
+        return stats.size();
+    }
+
+    private PlatformStat newStat(PlatformStat.Metric metric, LocalDate day, String dimension, String label,
+                                 long itemCount, BigDecimal amount) {
+        PlatformStat stat = new PlatformStat();
+        stat.setMetric(metric);
+        stat.setStatDate(day);
+        stat.setDimension(dimension);
+        stat.setLabel(label);
+        stat.setItemCount(itemCount);
+        stat.setAmount(amount);
+        return stat;
+    }
+
+    private BigDecimal lowerBound(int bucket) {
+        return bucket > 0 ? bucketBounds[bucket - 1] : null;
+    }
+
+    private BigDecimal upperBound(int bucket) {
+        return bucket < bucketBounds.length ? bucketBounds[bucket] : null;
+    }
+
+    private String bucketLabel(BigDecimal lower, BigDecimal upper) {
+        if (lower == null) {
+            return "<" + upper.toPlainString();
+        }
+        if (upper == null) {
+            return lower.toPlainString() + "+";
+        }
+        return lower.toPlainString() + "-" + upper.toPlainString();
+    }
+
+    private int bucketOrder(String label) {
+        int index = bucketLabels.indexOf(label);
+        return index >= 0 ? index : bucketLabels.size();
+    }
+}
@@ -0,0 +1,315 @@
+package com.paisa.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paisa.dto.AIRecommendationDto;
+import com.paisa.dto.JobRunDto;
+import com.paisa.entity.JobCheckpoint;
+import com.paisa.repository.JobCheckpointRepository;
+import com.paisa.repository.StoredRecommendationRepository;
+import com.paisa.repository.UserRepository;
+import com.paisa.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Generates Gemini recommendations ahead of time for recently active users and keeps the latest one per user
+@Service
+public class RecommendationPrecomputeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationPrecomputeService.class);
+
+    private static final String JOB_NAME = "ai-precompute";
+    private static final String PARTITION_KEY = "all";
+
+    private final AIService aiService;
+    private final UserRepository userRepository;
+    private final StoredRecommendationRepository storedRecommendationRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService runner;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int activeDays;
+    private final int chunkSize;
+    private final int concurrency;
+    private final long requestsPerMinute;
+    private final Duration maxAge;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicReference<JobRunDto> lastRun = new AtomicReference<>();
+    private final Timer runTimer;
+    private final Counter scannedCounter;
+    private final Counter generatedCounter;
+    private final Counter failedCounter;
+
+    public RecommendationPrecomputeService(AIService aiService,
+                                           UserRepository userRepository,
+                                           StoredRecommendationRepository storedRecommendationRepository,
+                                           JobCheckpointRepository checkpointRepository,
+                                           PlatformTransactionManager transactionManager,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${ai.precompute.active-days:30}") int activeDays,
+                                           @Value("${ai.precompute.chunk-size:100}") int chunkSize,
+                                           @Value("${ai.precompute.concurrency:4}") int concurrency,
+                                           @Value("${ai.precompute.requests-per-minute:30}") long requestsPerMinute,
+                                           @Value("${ai.precompute.max-age:7d}") Duration maxAge) {
+        this.aiService = aiService;
+        this.userRepository = userRepository;
+        this.storedRecommendationRepository = storedRecommendationRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.activeDays = activeDays;
+        this.chunkSize = chunkSize;
+        this.concurrency = concurrency;
+        this.requestsPerMinute = requestsPerMinute;
+        this.maxAge = maxAge;
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-precompute");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.runTimer = meterRegistry.timer("paisa.ai.precompute.run.duration");
+        this.scannedCounter = meterRegistry.counter("paisa.ai.precompute.users.scanned");
+        this.generatedCounter = meterRegistry.counter("paisa.ai.precompute.generated");
+        this.failedCounter = meterRegistry.counter("paisa.ai.precompute.failed");
+        meterRegistry.gauge("paisa.ai.precompute.last.run.throughput", lastRun,
+                run -> run.get() != null ? run.get().getItemsPerSecond() : 0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    // A run is paced to the Gemini quota and can take hours, so it gets its own thread rather than holding the
+    // shared scheduler thread that the recurring, stats and rollup jobs also fire on
+    @Scheduled(cron = "${ai.precompute.cron:0 30 2 * * ?}") // Nightly at 2:30 AM
+    public void scheduledRun() {
+        if (running.get()) {
+            logger.info("Recommendation precompute run already in progress, skipping");
+            return;
+        }
+        runner.execute(this::precomputeRecommendations);
+    }
+
+    public JobRunDto getLastRun() {
+        return lastRun.get();
+    }
+
+    // Stored output is served while it was generated from the user's current spend profile and is not too old
+    public AIRecommendationDto findFresh(String userId, String fingerprint) {
+        return storedRecommendationRepository.findView(userId)
+                .filter(stored -> isFresh(stored, fingerprint))
+                .map(this::toDto)
+                .orElse(null);
+    }
+
+    public void store(String userId, String fingerprint, AIRecommendationDto recommendations) {
+        transactionTemplate.executeWithoutResult(status -> upsert(userId, fingerprint, recommendations));
+    }
+
+    public JobRunDto precomputeRecommendations() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Recommendation precompute run already in progress, skipping");
+            return null;
+        }
+        try {
+            return runTimer.record(() -> runOnce(LocalDate.now()));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // The checkpoint is keyed by the run date, so a rerun on the same day resumes after the last committed
+    // chunk; users whose stored output is still fresh are skipped without calling Gemini
+    private JobRunDto runOnce(LocalDate runDate) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        String runKey = runDate.toString();
+        logger.info("Starting recommendation precompute job for {}", runKey);
+
+        JobCheckpoint checkpoint = loadCheckpoint(runKey);
+        LocalDateTime since = startedAt.minusDays(activeDays);
+        TokenBucket pacer = new TokenBucket(1, requestsPerMinute);
+        Semaphore inFlight = new Semaphore(concurrency);
+        String afterId = checkpoint.getLastProcessedId() != null ? checkpoint.getLastProcessedId() : "";
+        long scanned = 0;
+        long requested = 0;
+        long generated = 0;
+        long failures = 0;
+
+        boolean done = checkpoint.getCompleted();
+        while (!done) {
+            List<String> userIds = userRepository.findActiveIdsAfter(afterId, since, PageRequest.of(0, chunkSize));
+            ChunkResult result;
+            try {
+                result = processChunk(userIds, pacer, inFlight);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Recommendation precompute interrupted; it will resume from its checkpoint");
+                break;
+            }
+            scanned += userIds.size();
+            requested += result.requested();
+            generated += result.generated();
+            failures += result.failed();
+
+            // Failures while the breaker is open would only burn through the remaining users, so stop here
+            // and leave this chunk to be retried by the next run
+            if (result.failed() > 0 && !aiService.isAvailable()) {
+                logger.warn("Gemini circuit is open; stopping recommendation precompute after {} users", scanned);
+                break;
+            }
+
+            boolean last = userIds.size() < chunkSize;
+            String lastId = userIds.isEmpty() ? afterId : userIds.get(userIds.size() - 1);
+            transactionTemplate.executeWithoutResult(status ->
+                    checkpointRepository.advance(checkpoint.getId(), lastId, userIds.size(), last));
+            afterId = lastId;
+            done = last;
+        }
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        double perSecond = durationMs > 0 ? scanned * 1000.0 / durationMs : scanned;
+        JobRunDto run = new JobRunDto(JOB_NAME, startedAt, durationMs, scanned, requested, generated, failures,
+                perSecond);
+        lastRun.set(run);
+        scannedCounter.increment(scanned);
+        generatedCounter.increment(generated);
+        failedCounter.increment(failures);
+
+        logger.info("Completed recommendation precompute job for {}: {} users scanned, {} requested, {} stored, "
+                + "{} failed in {} ms ({} users/s)", runKey, scanned, requested, generated, failures, durationMs,
+                String.format("%.1f", perSecond));
+        return run;
+    }
+
+    private JobCheckpoint loadCheckpoint(String runKey) {
+        return checkpointRepository.findByJobNameAndRunKey(JOB_NAME, runKey).stream()
+                .filter(checkpoint -> PARTITION_KEY.equals(checkpoint.getPartitionKey()))
+                .findFirst()
+                .orElseGet(() -> {
+                    JobCheckpoint checkpoint = new JobCheckpoint();
+                    checkpoint.setJobName(JOB_NAME);
+                    checkpoint.setRunKey(runKey);
+                    checkpoint.setPartitionKey(PARTITION_KEY);
+                    return checkpointRepository.save(checkpoint);
+                });
+    }
+
+    // Profiles are aggregated on the job thread; Gemini calls are paced to the job's share of the quota and
+    // capped at the configured number in flight, then the whole chunk is written in one transaction
+    private ChunkResult processChunk(List<String> userIds, TokenBucket pacer, Semaphore inFlight)
+            throws InterruptedException {
+        Map<String, StoredRecommendationRepository.StoredView> stored = userIds.isEmpty()
+                ? Map.of()
+                : storedRecommendationRepository.findViews(userIds).stream()
+                        .collect(Collectors.toMap(StoredRecommendationRepository.StoredView::getUserId,
+                                Function.identity()));
+
+        Map<String, PendingCall> calls = new LinkedHashMap<>();
+        for (String userId : userIds) {
+            SpendProfile profile = aiService.loadProfile(userId);
+            if (profile.isEmpty()) {
+                continue;
+            }
+            String fingerprint = aiService.fingerprint(profile);
+            StoredRecommendationRepository.StoredView existing = stored.get(userId);
+            if (existing != null && isFresh(existing, fingerprint)) {
+                continue;
+            }
+
+            pacer.acquire();
+            inFlight.acquire();
+            CompletableFuture<AIRecommendationDto> future = aiService.getRecommendationsAsync(userId, profile);
+            future.whenComplete((recommendations, error) -> inFlight.release());
+            calls.put(userId, new PendingCall(fingerprint, future));
+        }
+
+        AIRecommendationDto defaults = aiService.getDefaultRecommendations();
+        Map<String, PendingCall> completed = new LinkedHashMap<>();
+        int failed = 0;
+        for (Map.Entry<String, PendingCall> call : calls.entrySet()) {
+            try {
+                AIRecommendationDto recommendations = call.getValue().future().get();
+                // Generic advice means the response could not be used; keep whatever is stored already
+                if (recommendations.equals(defaults)) {
+                    failed++;
+                } else {
+                    completed.put(call.getKey(), call.getValue());
+                }
+            } catch (ExecutionException e) {
+                failed++;
+                logger.debug("Recommendation precompute failed for user {}: {}", call.getKey(),
+                        e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+        }
+
+        if (!completed.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> completed.forEach((userId, call) ->
+                    upsert(userId, call.fingerprint(), call.future().join())));
+        }
+        return new ChunkResult(calls.size(), completed.size(), failed);
+    }
+
+    private void upsert(String userId, String fingerprint, AIRecommendationDto recommendations) {
+        try {
+            storedRecommendationRepository.upsert(UUID.randomUUID().toString(), userId, fingerprint,
+                    objectMapper.writeValueAsString(recommendations.getRecommendations()),
+                    recommendations.getSummary(), LocalDateTime.now());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize recommendations", e);
+        }
+    }
+
+    private boolean isFresh(StoredRecommendationRepository.StoredView stored, String fingerprint) {
+        return stored.getFingerprint().equals(fingerprint)
+                && stored.getGeneratedAt().isAfter(LocalDateTime.now().minus(maxAge));
+    }
+
+    private AIRecommendationDto toDto(StoredRecommendationRepository.StoredView stored) {
+        try {
+            List<String> recommendations = objectMapper.readValue(stored.getRecommendations(),
+                    new TypeReference<ArrayList<String>>() { });
+            return new AIRecommendationDto(recommendations, stored.getSummary());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read stored recommendations", e);
+        }
+    }
+
+    private record PendingCall(String fingerprint, CompletableFuture<AIRecommendationDto> future) {
+    }
+
+    private record ChunkResult(int requested, int generated, int failed) {
+    }
+}
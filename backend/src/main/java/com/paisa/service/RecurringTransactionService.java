@@ -0,0 +1,294 @@
+package com.paisa.service;
+
+import com.paisa.dto.JobRunDto;
+import com.paisa.entity.Account;
+import com.paisa.entity.LedgerEntry;
+import com.paisa.entity.Transaction;
+import com.paisa.entity.User;
+import com.paisa.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+@Service
+public class RecurringTransactionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecurringTransactionService.class);
+
+    private final TransactionRepository transactionRepository;
+    private final LedgerService ledgerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MonthlyRollupService monthlyRollupService;
+    private final BudgetTrackingService budgetTrackingService;
+    private final PlatformStatsService platformStatsService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final int chunkSize;
+    private final int maxOccurrencesPerRun;
+    private final int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicReference<JobRunDto> lastRun = new AtomicReference<>();
+    private final Timer runTimer;
+    private final Counter templatesCounter;
+    private final Counter createdCounter;
+    private final Counter failedChunksCounter;
+
+    public RecurringTransactionService(TransactionRepository transactionRepository,
+                                       LedgerService ledgerService,
+                                       ApplicationEventPublisher eventPublisher,
+                                       MonthlyRollupService monthlyRollupService,
+                                       BudgetTrackingService budgetTrackingService,
+                                       PlatformStatsService platformStatsService,
+                                       EntityManager entityManager,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${recurring.workers:4}") int workerCount,
+                                       @Value("${recurring.chunk-size:500}") int chunkSize,
+                                       @Value("${recurring.max-occurrences-per-run:400}") int maxOccurrencesPerRun,
+                                       @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize) {
+        this.transactionRepository = transactionRepository;
+        this.ledgerService = ledgerService;
+        this.eventPublisher = eventPublisher;
+        this.monthlyRollupService = monthlyRollupService;
+        this.budgetTrackingService = budgetTrackingService;
+        this.platformStatsService = platformStatsService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workerCount = workerCount;
+        this.chunkSize = chunkSize;
+        this.maxOccurrencesPerRun = maxOccurrencesPerRun;
+        this.batchSize = batchSize;
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "recurring-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.runTimer = meterRegistry.timer("paisa.recurring.run.duration");
+        this.templatesCounter = meterRegistry.counter("paisa.recurring.templates.processed");
+        this.createdCounter = meterRegistry.counter("paisa.recurring.transactions.created");
+        this.failedChunksCounter = meterRegistry.counter("paisa.recurring.chunks.failed");
+        meterRegistry.gauge("paisa.recurring.last.run.throughput", lastRun,
+                run -> run.get() != null ? run.get().getItemsPerSecond() : 0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    @Scheduled(cron = "${recurring.cron:0 5 * * * ?}") // Hourly, five minutes past the hour
+    public void scheduledRun() {
+        materializeDueTransactions();
+    }
+
+    public JobRunDto getLastRun() {
+        return lastRun.get();
+    }
+
+    public JobRunDto materializeDueTransactions() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Recurring transaction run already in progress, skipping");
+            return null;
+        }
+        try {
+            return runTimer.record(this::runOnce);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private JobRunDto runOnce() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        logger.info("Starting recurring transaction run");
+
+        AtomicLong scanned = new AtomicLong();
+        AtomicLong processed = new AtomicLong();
+        AtomicLong created = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        Semaphore inFlight = new Semaphore(workerCount * 2);
+        List<Future<?>> futures = new ArrayList<>();
+
+        LocalDateTime afterDate = null;
+        String afterId = null;
+        List<TransactionRepository.RecurringTemplateRef> due;
+        do {
+            due = transactionRepository.findDueRecurringTemplates(startedAt, afterDate, afterId,
+                    PageRequest.of(0, chunkSize));
+            if (due.isEmpty()) {
+                break;
+            }
+            TransactionRepository.RecurringTemplateRef last = due.get(due.size() - 1);
+            afterDate = last.getNextRecurringDate();
+            afterId = last.getId();
+            scanned.addAndGet(due.size());
+
+            List<String> ids = due.stream()
+                    .map(TransactionRepository.RecurringTemplateRef::getId)
+                    .collect(Collectors.toList());
+            inFlight.acquireUninterruptibly();
+            futures.add(workers.submit(() -> {
+                try {
+                    int[] result = transactionTemplate.execute(status -> processChunk(ids, startedAt));
+                    processed.addAndGet(result[0]);
+                    created.addAndGet(result[1]);
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                    failedChunksCounter.increment();
+                    logger.error("Failed to materialize recurring chunk starting at template {}", ids.get(0), e);
+                } finally {
+                    inFlight.release();
+                }
+            }));
+            futures.removeIf(Future::isDone);
+        } while (due.size() == chunkSize);
+
+        for (Future<?> future : futures) {
+            try {
+                future.get(1, TimeUnit.HOURS);
+            } catch (Exception e) {
+                logger.error("Recurring chunk did not complete", e);
+            }
+        }
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        double perSecond = durationMs > 0 ? created.get() * 1000.0 / durationMs : created.get();
+        JobRunDto run = new JobRunDto("recurring-transactions", startedAt, durationMs, scanned.get(),
+                processed.get(), created.get(), failures.get(), perSecond);
+        lastRun.set(run);
+        templatesCounter.increment(processed.get());
+        createdCounter.increment(created.get());
+
+        logger.info("Completed recurring transaction run: {} templates due, {} processed, {} transactions created, "
+                + "{} failed chunks in {} ms ({} tx/s)", scanned.get(), processed.get(), created.get(),
+                failures.get(), durationMs, String.format("%.1f", perSecond));
+        return run;
+    }
+
+    private int[] processChunk(List<String> templateIds, LocalDateTime now) {
+        Map<String, BigDecimal> balanceDeltas = new TreeMap<>();
+        Map<String, Map<MonthlyRollupService.Key, MonthlyRollupService.Delta>> rollupDeltas = new TreeMap<>();
+        Set<LocalDate> days = new TreeSet<>();
+        int processed = 0;
+        int created = 0;
+        int pending = 0;
+
+        // Claim every template of the chunk before persisting any occurrence: the claim is a bulk UPDATE, which
+        // makes Hibernate flush pending inserts first and would otherwise cut the JDBC batches at each template
+        List<Claim> claims = new ArrayList<>();
+        for (Transaction template : transactionRepository.findAllById(templateIds)) {
+            LocalDateTime expected = template.getNextRecurringDate();
+            if (template.getRecurringInterval() == null || expected == null || expected.isAfter(now)) {
+                continue;
+            }
+
+            List<LocalDateTime> occurrences = new ArrayList<>();
+            LocalDateTime next = expected;
+            while (!next.isAfter(now) && occurrences.size() < maxOccurrencesPerRun) {
+                occurrences.add(next);
+                next = template.getRecurringInterval().advance(next);
+            }
+
+            // Another worker or node that already advanced the template wins
+            if (transactionRepository.advanceRecurringTemplate(template.getId(), expected, next, now) == 0) {
+                continue;
+            }
+            claims.add(new Claim(template, template.getUser().getId(), template.getAccount().getId(), occurrences));
+        }
+        processed = claims.size();
+
+        for (Claim claim : claims) {
+            Transaction template = claim.template();
+            String userId = claim.userId();
+            String accountId = claim.accountId();
+            for (LocalDateTime occurrence : claim.occurrences()) {
+                Transaction child = new Transaction();
+                child.setType(template.getType());
+                child.setAmount(template.getAmount());
+                child.setDescription(template.getDescription());
+                child.setDate(occurrence);
+                child.setCategory(template.getCategory());
+                child.setReceiptUrl(template.getReceiptUrl());
+                child.setIsRecurring(false);
+                child.setStatus(template.getStatus());
+                child.setRecurringSourceId(template.getId());
+                child.setUser(entityManager.getReference(User.class, userId));
+                child.setAccount(entityManager.getReference(Account.class, accountId));
+                entityManager.persist(child);
+                created++;
+
+                if (child.getStatus() == Transaction.TransactionStatus.COMPLETED) {
+                    BigDecimal delta = child.getType() == Transaction.TransactionType.INCOME
+                            ? child.getAmount()
+                            : child.getAmount().negate();
+                    balanceDeltas.merge(accountId, delta, BigDecimal::add);
+                }
+                rollupDeltas.computeIfAbsent(userId, id -> new HashMap<>())
+                        .computeIfAbsent(new MonthlyRollupService.Key(MonthlyRollupService.periodOf(occurrence),
+                                child.getType(), child.getCategory()), key -> new MonthlyRollupService.Delta())
+                        .add(child.getAmount());
+                days.add(occurrence.toLocalDate());
+
+                // Cleared as well as flushed so a chunk of long-overdue templates does not pile up managed rows;
+                // the templates' fields were read when they were loaded, so detaching them is harmless
+                if (++pending >= batchSize) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    pending = 0;
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Atomic deltas in a stable account and user order, so parallel chunks neither lose updates nor deadlock
+        balanceDeltas.forEach((accountId, delta) ->
+                ledgerService.post(accountId, delta, LedgerEntry.Kind.RECURRING, null));
+        rollupDeltas.forEach(monthlyRollupService::applyDeltas);
+        rollupDeltas.forEach(budgetTrackingService::applyDeltas);
+        // Marked last, close to the commit, so the stats refresh cannot pass these rows by their insert time
+        platformStatsService.markDirty(days);
+        rollupDeltas.keySet().forEach(userId ->
+                eventPublisher.publishEvent(new TransactionChangedEvent(userId, null, null)));
+
+        return new int[] {processed, created};
+    }
+
+    private record Claim(Transaction template, String userId, String accountId, List<LocalDateTime> occurrences) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.paisa.service;
+
+import com.paisa.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Aggregated view of a user's recent transactions shared by the Gemini prompt and the local insights
+public record SpendProfile(LocalDateTime from, LocalDateTime to, BigDecimal totalIncome, BigDecimal totalExpense,
+                           List<TransactionRepository.CategoryTotal> expensesByCategory) {
+    
+    public boolean isEmpty() {
+        return totalIncome.signum() == 0 && totalExpense.signum() == 0 && expensesByCategory.isEmpty();
+    }
+}
@@ -0,0 +1,13 @@
+package com.paisa.service;
+
+import com.paisa.dto.TransactionSearchRow;
+
+// row is null when the transaction was deleted; transactionId is null when many of the user's rows changed.
+// dateMoved is set when an update moved the transaction to another day, which leaves the ledger untouched
+public record TransactionChangedEvent(String userId, String transactionId, TransactionSearchRow row,
+                                      boolean dateMoved) {
+
+    public TransactionChangedEvent(String userId, String transactionId, TransactionSearchRow row) {
+        this(userId, transactionId, row, false);
+    }
+}
@@ -0,0 +1,370 @@
+package com.paisa.service;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paisa.dto.ImportResultDto;
+import com.paisa.dto.ImportRowErrorDto;
+import com.paisa.dto.TransactionDto;
+import com.paisa.entity.Account;
+import com.paisa.entity.LedgerEntry;
+import com.paisa.entity.Transaction;
+import com.paisa.entity.User;
+import com.paisa.repository.AccountRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@Service
+public class TransactionImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int AMOUNT_PRECISION = 19;
+    private static final int AMOUNT_SCALE = 2;
+
+    private final AccountRepository accountRepository;
+    private final LedgerService ledgerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MonthlyRollupService monthlyRollupService;
+    private final BudgetTrackingService budgetTrackingService;
+    private final PlatformStatsService platformStatsService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int batchSize;
+
+    public TransactionImportService(AccountRepository accountRepository,
+                                    LedgerService ledgerService,
+                                    ApplicationEventPublisher eventPublisher,
+                                    MonthlyRollupService monthlyRollupService,
+                                    BudgetTrackingService budgetTrackingService,
+                                    PlatformStatsService platformStatsService,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper) {
+        this.accountRepository = accountRepository;
+        this.ledgerService = ledgerService;
+        this.eventPublisher = eventPublisher;
+        this.monthlyRollupService = monthlyRollupService;
+        this.budgetTrackingService = budgetTrackingService;
+        this.platformStatsService = platformStatsService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional
+    public ImportResultDto importJson(InputStream body, String userId) throws IOException {
+        ImportSession session = openSession(userId);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            readRows(parser, session);
+        }
+
+        return session.finish();
+    }
+
+    private void readRows(JsonParser parser, ImportSession session) throws IOException {
+        try {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of transactions");
+            }
+            int row = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IllegalArgumentException("Unterminated JSON array");
+                }
+                row++;
+                JsonNode node = parser.readValueAsTree();
+                TransactionDto dto;
+                try {
+                    dto = objectMapper.treeToValue(node, TransactionDto.class);
+                } catch (IOException | IllegalArgumentException e) {
+                    session.reject(row, "Malformed row: " + e.getMessage());
+                    continue;
+                }
+                session.accept(row, dto);
+            }
+        } catch (JsonProcessingException e) {
+            // A syntax error leaves the parser unable to find the next row, so the whole body is rejected
+            JsonLocation location = e.getLocation() != null ? e.getLocation() : parser.currentLocation();
+            throw new IllegalArgumentException(String.format("Malformed JSON at line %d, column %d: %s",
+                    location.getLineNr(), location.getColumnNr(), e.getOriginalMessage()));
+        }
+    }
+
+    @Transactional
+    public ImportResultDto importCsv(InputStream body, String userId) throws IOException {
+        ImportSession session = openSession(userId);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IllegalArgumentException("CSV body is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = parseCsvLine(headerLine);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("date", "type", "amount", "category")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + required);
+            }
+        }
+
+        int row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            try {
+                session.accept(row, toDto(parseCsvLine(line), columns));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                session.reject(row, e.getMessage());
+            }
+        }
+
+        return session.finish();
+    }
+
+    private ImportSession openSession(String userId) {
+        List<Account> accounts = accountRepository.findByUserId(userId);
+        String defaultAccountId = accounts.stream()
+                .filter(Account::getIsDefault)
+                .map(Account::getId)
+                .findFirst()
+                .orElse(null);
+        Set<String> accountIds = accounts.stream().map(Account::getId).collect(Collectors.toSet());
+        return new ImportSession(userId, accountIds, defaultAccountId);
+    }
+
+    private TransactionDto toDto(List<String> fields, Map<String, Integer> columns) {
+        TransactionDto dto = new TransactionDto();
+        String type = column(fields, columns, "type");
+        if (type != null) {
+            dto.setType(parseEnum(Transaction.TransactionType.class, "type", type));
+        }
+        String amount = column(fields, columns, "amount");
+        if (amount != null) {
+            try {
+                dto.setAmount(new BigDecimal(amount));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid amount: " + amount);
+            }
+        }
+        String date = column(fields, columns, "date");
+        if (date != null) {
+            dto.setDate(date.length() == 10 ? LocalDate.parse(date).atStartOfDay() : LocalDateTime.parse(date));
+        }
+        dto.setCategory(column(fields, columns, "category"));
+        dto.setDescription(column(fields, columns, "description"));
+        dto.setAccountId(column(fields, columns, "accountid"));
+        String status = column(fields, columns, "status");
+        if (status != null) {
+            dto.setStatus(parseEnum(Transaction.TransactionStatus.class, "status", status));
+        }
+        return dto;
+    }
+
+    private <E extends Enum<E>> E parseEnum(Class<E> type, String name, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private String column(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private class ImportSession {
+
+        private final String userId;
+        private final Set<String> accountIds;
+        private final String defaultAccountId;
+        private final long startedAt = System.currentTimeMillis();
+        private final ImportResultDto result = new ImportResultDto();
+        private final Map<String, BigDecimal> balanceDeltas = new TreeMap<>();
+        private final Map<MonthlyRollupService.Key, MonthlyRollupService.Delta> rollupDeltas = new HashMap<>();
+        private final Set<LocalDate> days = new TreeSet<>();
+        private int pending;
+
+        ImportSession(String userId, Set<String> accountIds, String defaultAccountId) {
+            this.userId = userId;
+            this.accountIds = accountIds;
+            this.defaultAccountId = defaultAccountId;
+        }
+
+        void accept(int row, TransactionDto dto) {
+            result.setTotalRows(result.getTotalRows() + 1);
+
+            String accountId = dto.getAccountId() != null ? dto.getAccountId() : defaultAccountId;
+            String error = validate(dto, accountId);
+            if (error != null) {
+                addError(row, error);
+                return;
+            }
+
+            Transaction transaction = new Transaction();
+            transaction.setType(dto.getType());
+            transaction.setAmount(dto.getAmount());
+            transaction.setDescription(dto.getDescription());
+            transaction.setDate(dto.getDate());
+            transaction.setCategory(dto.getCategory());
+            transaction.setReceiptUrl(dto.getReceiptUrl());
+            transaction.setIsRecurring(dto.getIsRecurring() != null ? dto.getIsRecurring() : false);
+            transaction.setRecurringInterval(dto.getRecurringInterval());
+            transaction.setStatus(dto.getStatus() != null ? dto.getStatus() : Transaction.TransactionStatus.COMPLETED);
+            transaction.scheduleNextOccurrence();
+            transaction.setUser(entityManager.getReference(User.class, userId));
+            transaction.setAccount(entityManager.getReference(Account.class, accountId));
+            entityManager.persist(transaction);
+
+            if (transaction.getStatus() == Transaction.TransactionStatus.COMPLETED) {
+                BigDecimal delta = transaction.getType() == Transaction.TransactionType.INCOME
+                        ? transaction.getAmount()
+                        : transaction.getAmount().negate();
+                balanceDeltas.merge(accountId, delta, BigDecimal::add);
+            }
+            rollupDeltas.computeIfAbsent(new MonthlyRollupService.Key(
+                    MonthlyRollupService.periodOf(transaction.getDate()), transaction.getType(),
+                    transaction.getCategory()), key -> new MonthlyRollupService.Delta())
+                    .add(transaction.getAmount());
+            days.add(transaction.getDate().toLocalDate());
+
+            result.setImportedRows(result.getImportedRows() + 1);
+            if (++pending >= batchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+
+        void reject(int row, String message) {
+            result.setTotalRows(result.getTotalRows() + 1);
+            addError(row, message);
+        }
+
+        ImportResultDto finish() {
+            entityManager.flush();
+            entityManager.clear();
+
+            balanceDeltas.forEach((accountId, delta) ->
+                    ledgerService.post(accountId, delta, LedgerEntry.Kind.IMPORT, null));
+            monthlyRollupService.applyDeltas(userId, rollupDeltas);
+            budgetTrackingService.applyDeltas(userId, rollupDeltas);
+            // The rows carry the time they were persisted, which can be older than the stats watermark by the
+            // time a long import commits; marks written last are within the watermark lag of the commit
+            platformStatsService.markDirty(days);
+            eventPublisher.publishEvent(new TransactionChangedEvent(userId, null, null));
+
+            result.setDurationMs(System.currentTimeMillis() - startedAt);
+            logger.info("Imported {} of {} transactions for user {} in {} ms",
+                    result.getImportedRows(), result.getTotalRows(), userId, result.getDurationMs());
+            return result;
+        }
+
+        private String validate(TransactionDto dto, String accountId) {
+            if (dto.getType() == null) {
+                return "type is required";
+            }
+            if (dto.getAmount() == null || dto.getAmount().signum() <= 0) {
+                return "amount must be a positive number";
+            }
+            // Checked here so the row is reported instead of failing the batch insert into DECIMAL(19,2)
+            BigDecimal amount = dto.getAmount().stripTrailingZeros();
+            if (amount.scale() > AMOUNT_SCALE) {
+                return "amount must have at most " + AMOUNT_SCALE + " decimal places";
+            }
+            if (amount.precision() - amount.scale() > AMOUNT_PRECISION - AMOUNT_SCALE) {
+                return "amount must have at most " + (AMOUNT_PRECISION - AMOUNT_SCALE)
+                        + " digits before the decimal point";
+            }
+            if (dto.getDate() == null) {
+                return "date is required";
+            }
+            if (dto.getCategory() == null || dto.getCategory().isBlank()) {
+                return "category is required";
+            }
+            if (accountId == null) {
+                return "accountId is required when the user has no default account";
+            }
+            if (!accountIds.contains(accountId)) {
+                return "Account not found: " + accountId;
+            }
+            return null;
+        }
+
+        private void addError(int row, String message) {
+            result.setFailedRows(result.getFailedRows() + 1);
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add(new ImportRowErrorDto(row, message));
+            }
+        }
+    }
+}
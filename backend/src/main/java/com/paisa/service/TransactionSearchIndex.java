@@ -0,0 +1,226 @@
+package com.paisa.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paisa.dto.TransactionFilter;
+import com.paisa.dto.TransactionSearchRow;
+import com.paisa.repository.TransactionRepository;
+import com.paisa.util.CursorCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+// Per-user inverted index over transaction descriptions, built on a user's first search and kept current
+// from TransactionChangedEvent after each write commits
+@Component
+public class TransactionSearchIndex {
+
+    private static final Comparator<TransactionSearchRow> NEWEST_FIRST = Comparator
+            .comparing(TransactionSearchRow::getDate)
+            .thenComparing(TransactionSearchRow::getId)
+            .reversed();
+
+    private final TransactionRepository transactionRepository;
+    private final Cache<String, UserIndex> indexes;
+
+    public TransactionSearchIndex(TransactionRepository transactionRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${search.index.max-documents:2000000}") long maxDocuments,
+                                  @Value("${search.index.idle-ttl:30m}") Duration idleTtl) {
+        this.transactionRepository = transactionRepository;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxDocuments)
+                .weigher((String userId, UserIndex index) -> Math.max(1, index.size()))
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "transactions.search");
+    }
+
+    // Ids of the next limit matches after the cursor, newest first
+    @Transactional(readOnly = true)
+    public List<String> search(String userId, TransactionFilter filter, CursorCodec.Cursor position, int limit) {
+        UserIndex index = indexes.get(userId, this::load);
+        return index.search(tokenize(filter.getQuery()), filter, position, limit);
+    }
+
+    // Events for users without a built index are dropped; their index is read fresh on the next search
+    @TransactionalEventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (event.transactionId() == null) {
+            indexes.invalidate(event.userId());
+            return;
+        }
+        indexes.asMap().computeIfPresent(event.userId(), (userId, index) -> {
+            index.remove(event.transactionId());
+            if (event.row() != null) {
+                index.add(event.row());
+            }
+            return index;
+        });
+    }
+
+    private UserIndex load(String userId) {
+        UserIndex index = new UserIndex();
+        try (Stream<TransactionSearchRow> rows = transactionRepository.streamSearchRows(userId)) {
+            rows.forEach(index::add);
+        }
+        index.markLoaded();
+        return index;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Rows live in numbered slots so postings are bitsets. Slots below sortedEnd were loaded oldest first,
+    // so a newest-first scan of them can stop as soon as a page is full; later writes append past it
+    private static final class UserIndex {
+
+        private final List<TransactionSearchRow> slots = new ArrayList<>();
+        private final Map<String, Integer> slotsById = new HashMap<>();
+        private final BitSet live = new BitSet();
+        private final Map<String, BitSet> postings = new HashMap<>();
+        private int sortedEnd;
+
+        synchronized int size() {
+            return slotsById.size();
+        }
+
+        synchronized void markLoaded() {
+            sortedEnd = slots.size();
+        }
+
+        synchronized void add(TransactionSearchRow row) {
+            int slot = slots.size();
+            slots.add(row);
+            slotsById.put(row.getId(), slot);
+            live.set(slot);
+            for (String token : tokenize(row.getDescription())) {
+                postings.computeIfAbsent(token, key -> new BitSet()).set(slot);
+            }
+        }
+
+        // Slots are not reused; the index is rebuilt from scratch when it idles out or after bulk writes
+        synchronized void remove(String id) {
+            Integer slot = slotsById.remove(id);
+            if (slot == null) {
+                return;
+            }
+            for (String token : tokenize(slots.get(slot).getDescription())) {
+                BitSet bits = postings.get(token);
+                if (bits != null) {
+                    bits.clear(slot);
+                    if (bits.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+            slots.set(slot, null);
+            live.clear(slot);
+        }
+
+        // Every query token must occur inside some token of the description
+        synchronized List<String> search(List<String> queryTokens, TransactionFilter filter,
+                                         CursorCodec.Cursor position, int limit) {
+            BitSet candidates = null;
+            for (String queryToken : queryTokens) {
+                BitSet matches = new BitSet();
+                postings.forEach((token, bits) -> {
+                    if (token.contains(queryToken)) {
+                        matches.or(bits);
+                    }
+                });
+                if (candidates == null) {
+                    candidates = matches;
+                } else {
+                    candidates.and(matches);
+                }
+                if (candidates.isEmpty()) {
+                    return List.of();
+                }
+            }
+            if (candidates == null) {
+                candidates = live;
+            }
+
+            // Bounded heap with the oldest kept match on top
+            PriorityQueue<TransactionSearchRow> top = new PriorityQueue<>(limit + 1, NEWEST_FIRST.reversed());
+            for (int slot = candidates.previousSetBit(slots.size() - 1); slot >= sortedEnd;
+                 slot = candidates.previousSetBit(slot - 1)) {
+                offer(top, slots.get(slot), filter, position, limit);
+            }
+            for (int slot = candidates.previousSetBit(sortedEnd - 1); slot >= 0;
+                 slot = candidates.previousSetBit(slot - 1)) {
+                TransactionSearchRow row = slots.get(slot);
+                if (top.size() == limit && NEWEST_FIRST.compare(row, top.peek()) > 0) {
+                    break;
+                }
+                offer(top, row, filter, position, limit);
+            }
+            List<TransactionSearchRow> page = new ArrayList<>(top);
+            page.sort(NEWEST_FIRST);
+            List<String> ids = new ArrayList<>(page.size());
+            page.forEach(row -> ids.add(row.getId()));
+            return Collections.unmodifiableList(ids);
+        }
+
+        private static void offer(PriorityQueue<TransactionSearchRow> top, TransactionSearchRow row,
+                                  TransactionFilter filter, CursorCodec.Cursor position, int limit) {
+            if (top.size() == limit && NEWEST_FIRST.compare(row, top.peek()) > 0) {
+                return;
+            }
+            if (matches(row, filter, position)) {
+                top.add(row);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+
+        private static boolean matches(TransactionSearchRow row, TransactionFilter filter,
+                                       CursorCodec.Cursor position) {
+            LocalDateTime date = row.getDate();
+            return (filter.getAccountId() == null || filter.getAccountId().equals(row.getAccountId()))
+                    && (filter.getCategory() == null || filter.getCategory().equals(row.getCategory()))
+                    && (filter.getType() == null || filter.getType() == row.getType())
+                    && (filter.getFrom() == null || !date.isBefore(filter.getFrom()))
+                    && (filter.getTo() == null || !date.isAfter(filter.getTo()))
+                    && (filter.getMinAmount() == null || row.getAmount().compareTo(filter.getMinAmount()) >= 0)
+                    && (filter.getMaxAmount() == null || row.getAmount().compareTo(filter.getMaxAmount()) <= 0)
+                    && (position == null || date.isBefore(position.date())
+                        || (date.equals(position.date()) && row.getId().compareTo(position.id()) < 0));
+        }
+    }
+}
@@ -1,45 +1,75 @@
 package com.paisa.service;
 
+import com.paisa.dto.CursorPageDto;
 import com.paisa.dto.TransactionDto;
+import com.paisa.dto.TransactionFilter;
+import com.paisa.dto.TransactionSearchRow;
 import com.paisa.entity.Account;
+import com.paisa.entity.LedgerEntry;
 import com.paisa.entity.Transaction;
 import com.paisa.entity.User;
 import com.paisa.repository.AccountRepository;
 import com.paisa.repository.TransactionRepository;
 import com.paisa.repository.UserRepository;
+import com.paisa.util.CursorCodec;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TransactionService {
     
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
+    private final MonthlyRollupService monthlyRollupService;
+    private final BudgetTrackingService budgetTrackingService;
+    private final PlatformStatsService platformStatsService;
+    private final LedgerService ledgerService;
+    private final TransactionSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
     
     public TransactionService(TransactionRepository transactionRepository,
                              AccountRepository accountRepository,
-                             UserRepository userRepository) {
+                             UserRepository userRepository,
+                             MonthlyRollupService monthlyRollupService,
+                             BudgetTrackingService budgetTrackingService,
+                             PlatformStatsService platformStatsService,
+                             LedgerService ledgerService,
+                             TransactionSearchIndex searchIndex,
+                             ApplicationEventPublisher eventPublisher,
+                             EntityManager entityManager) {
         this.transactionRepository = transactionRepository;
         this.accountRepository = accountRepository;
         this.userRepository = userRepository;
-    }
-    
-    private String getUserIdFromEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return user.getId();
+        this.monthlyRollupService = monthlyRollupService;
+        this.budgetTrackingService = budgetTrackingService;
+        this.platformStatsService = platformStatsService;
+        this.ledgerService = ledgerService;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
     }
     
     @Transactional
-    public TransactionDto createTransaction(TransactionDto transactionDto, String email) {
-        String userId = getUserIdFromEmail(email);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public TransactionDto createTransaction(TransactionDto transactionDto, String userId) {
+        User user = userRepository.getReferenceById(userId);
         
         Account account = accountRepository.findByIdAndUserId(transactionDto.getAccountId(), userId)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
@@ -54,35 +84,102 @@ public class TransactionService {
         transaction.setIsRecurring(transactionDto.getIsRecurring() != null ? transactionDto.getIsRecurring() : false);
         transaction.setRecurringInterval(transactionDto.getRecurringInterval());
         transaction.setStatus(transactionDto.getStatus() != null ? transactionDto.getStatus() : Transaction.TransactionStatus.COMPLETED);
+        transaction.scheduleNextOccurrence();
         transaction.setUser(user);
         transaction.setAccount(account);
         
         transaction = transactionRepository.save(transaction);
+        eventPublisher.publishEvent(new TransactionChangedEvent(userId, transaction.getId(), searchRowOf(transaction)));
         
-        updateAccountBalance(account, transaction);
+        ledgerService.post(account.getId(), balanceDelta(transaction.getType(), transaction.getStatus(),
+                transaction.getAmount()), LedgerEntry.Kind.TRANSACTION, transaction.getId());
+        monthlyRollupService.record(transaction);
+        budgetTrackingService.record(userId, transaction.getType(), transaction.getDate(), transaction.getAmount());
         
         return convertToDto(transaction);
     }
     
-    public List<TransactionDto> getUserTransactions(String email) {
-        String userId = getUserIdFromEmail(email);
+    public List<TransactionDto> getUserTransactions(String userId) {
         return transactionRepository.findByUserIdOrderByDateDesc(userId).stream()
-                .map(this::convertToDto)
+                .map(TransactionService::convertToDto)
                 .collect(Collectors.toList());
     }
     
-    public List<TransactionDto> getAccountTransactions(String accountId, String email) {
-        String userId = getUserIdFromEmail(email);
+    public List<TransactionDto> getAccountTransactions(String accountId, String userId) {
         Account account = accountRepository.findByIdAndUserId(accountId, userId)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
         
         return transactionRepository.findByAccountIdOrderByDateDesc(accountId).stream()
-                .map(this::convertToDto)
+                .map(TransactionService::convertToDto)
                 .collect(Collectors.toList());
     }
     
-    public TransactionDto getTransactionById(String id, String email) {
-        String userId = getUserIdFromEmail(email);
+    public CursorPageDto<TransactionDto> getTransactionPage(String userId, TransactionFilter filter,
+                                                           String cursor, Integer limit) {
+        return findPage(userId, filter, cursor, limit);
+    }
+    
+    public CursorPageDto<TransactionDto> getAccountTransactionPage(String accountId, String userId,
+                                                                  TransactionFilter filter,
+                                                                  String cursor, Integer limit) {
+        accountRepository.findByIdAndUserId(accountId, userId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        
+        filter.setAccountId(accountId);
+        return findPage(userId, filter, cursor, limit);
+    }
+    
+    @Transactional(readOnly = true)
+    public void streamTransactions(String userId, TransactionFilter filter, Consumer<TransactionDto> consumer) {
+        try (Stream<Transaction> transactions = transactionRepository.streamFiltered(userId,
+                filter.getAccountId(), filter.getFrom(), filter.getTo(), filter.getType(), filter.getCategory(),
+                filter.getMinAmount(), filter.getMaxAmount())) {
+            transactions.forEach(transaction -> {
+                consumer.accept(convertToDto(transaction));
+                entityManager.detach(transaction);
+            });
+        }
+    }
+    
+    private CursorPageDto<TransactionDto> findPage(String userId, TransactionFilter filter,
+                                                   String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        CursorCodec.Cursor position = cursor != null && !cursor.isEmpty() ? CursorCodec.decode(cursor) : null;
+        
+        List<Transaction> rows = filter.getQuery() != null && !filter.getQuery().isBlank()
+                ? searchPage(userId, filter, position, pageSize + 1)
+                : transactionRepository.findPage(userId,
+                        filter.getAccountId(), filter.getFrom(), filter.getTo(), filter.getType(), filter.getCategory(),
+                        filter.getMinAmount(), filter.getMaxAmount(),
+                        position != null ? position.date() : null,
+                        position != null ? position.id() : null,
+                        PageRequest.of(0, pageSize + 1));
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(last.getDate(), last.getId());
+        }
+        
+        return new CursorPageDto<>(page.stream().map(TransactionService::convertToDto).collect(Collectors.toList()),
+                nextCursor, hasMore);
+    }
+    
+    // Text queries resolve ids from the in-memory index, then load just that page in index order
+    private List<Transaction> searchPage(String userId, TransactionFilter filter, CursorCodec.Cursor position,
+                                         int limit) {
+        List<String> ids = searchIndex.search(userId, filter, position, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Transaction> byId = transactionRepository.findByIdsForUser(ids, userId).stream()
+                .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+    
+    public TransactionDto getTransactionById(String id, String userId) {
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
         
@@ -94,8 +191,7 @@ public class TransactionService {
     }
     
     @Transactional
-    public TransactionDto updateTransaction(String id, TransactionDto transactionDto, String email) {
-        String userId = getUserIdFromEmail(email);
+    public TransactionDto updateTransaction(String id, TransactionDto transactionDto, String userId) {
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
         
@@ -105,6 +201,11 @@ public class TransactionService {
         
         BigDecimal oldAmount = transaction.getAmount();
         Transaction.TransactionType oldType = transaction.getType();
+        BigDecimal oldDelta = balanceDelta(oldType, transaction.getStatus(), oldAmount);
+        LocalDateTime oldDate = transaction.getDate();
+        String oldCategory = transaction.getCategory();
+        Boolean oldIsRecurring = transaction.getIsRecurring();
+        Transaction.RecurringInterval oldInterval = transaction.getRecurringInterval();
         
         transaction.setType(transactionDto.getType());
         transaction.setAmount(transactionDto.getAmount());
@@ -115,18 +216,33 @@ public class TransactionService {
         transaction.setIsRecurring(transactionDto.getIsRecurring());
         transaction.setRecurringInterval(transactionDto.getRecurringInterval());
         transaction.setStatus(transactionDto.getStatus());
+        if (!Objects.equals(oldIsRecurring, transaction.getIsRecurring())
+                || oldInterval != transaction.getRecurringInterval()
+                || transaction.getNextRecurringDate() == null) {
+            transaction.scheduleNextOccurrence();
+        }
         
         transaction = transactionRepository.save(transaction);
+        boolean dateMoved = !oldDate.toLocalDate().equals(transaction.getDate().toLocalDate());
+        eventPublisher.publishEvent(new TransactionChangedEvent(userId, transaction.getId(), searchRowOf(transaction),
+                dateMoved));
         
-        revertAccountBalance(transaction.getAccount(), oldType, oldAmount);
-        updateAccountBalance(transaction.getAccount(), transaction);
+        ledgerService.post(transaction.getAccount().getId(), balanceDelta(transaction.getType(),
+                transaction.getStatus(), transaction.getAmount()).subtract(oldDelta),
+                LedgerEntry.Kind.TRANSACTION, transaction.getId());
+        monthlyRollupService.unrecord(userId, oldDate, oldType, oldCategory, oldAmount);
+        monthlyRollupService.record(transaction);
+        budgetTrackingService.unrecord(userId, oldType, oldDate, oldAmount);
+        budgetTrackingService.record(userId, transaction.getType(), transaction.getDate(), transaction.getAmount());
+        if (dateMoved) {
+            platformStatsService.markDirty(List.of(oldDate.toLocalDate()));
+        }
         
         return convertToDto(transaction);
     }
     
     @Transactional
-    public void deleteTransaction(String id, String email) {
-        String userId = getUserIdFromEmail(email);
+    public void deleteTransaction(String id, String userId) {
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
         
@@ -134,31 +250,32 @@ public class TransactionService {
             throw new RuntimeException("Unauthorized access");
         }
         
-        revertAccountBalance(transaction.getAccount(), transaction.getType(), transaction.getAmount());
+        ledgerService.post(transaction.getAccount().getId(), balanceDelta(transaction.getType(),
+                transaction.getStatus(), transaction.getAmount()).negate(),
+                LedgerEntry.Kind.TRANSACTION, transaction.getId());
+        monthlyRollupService.unrecord(userId, transaction.getDate(), transaction.getType(),
+                transaction.getCategory(), transaction.getAmount());
+        budgetTrackingService.unrecord(userId, transaction.getType(), transaction.getDate(), transaction.getAmount());
+        platformStatsService.markDirty(List.of(transaction.getDate().toLocalDate()));
+        eventPublisher.publishEvent(new TransactionChangedEvent(userId, transaction.getId(), null));
         transactionRepository.delete(transaction);
     }
     
-    private void updateAccountBalance(Account account, Transaction transaction) {
-        if (transaction.getStatus() == Transaction.TransactionStatus.COMPLETED) {
-            if (transaction.getType() == Transaction.TransactionType.INCOME) {
-                account.setBalance(account.getBalance().add(transaction.getAmount()));
-            } else {
-                account.setBalance(account.getBalance().subtract(transaction.getAmount()));
-            }
-            accountRepository.save(account);
+    private static BigDecimal balanceDelta(Transaction.TransactionType type, Transaction.TransactionStatus status,
+                                           BigDecimal amount) {
+        if (status != Transaction.TransactionStatus.COMPLETED) {
+            return BigDecimal.ZERO;
         }
+        return type == Transaction.TransactionType.INCOME ? amount : amount.negate();
     }
     
-    private void revertAccountBalance(Account account, Transaction.TransactionType type, BigDecimal amount) {
-        if (type == Transaction.TransactionType.INCOME) {
-            account.setBalance(account.getBalance().subtract(amount));
-        } else {
-            account.setBalance(account.getBalance().add(amount));
-        }
-        accountRepository.save(account);
+    private static TransactionSearchRow searchRowOf(Transaction transaction) {
+        return new TransactionSearchRow(transaction.getId(), transaction.getDescription(), transaction.getDate(),
+                transaction.getAmount(), transaction.getAccount().getId(), transaction.getCategory(),
+                transaction.getType());
     }
     
-    private TransactionDto convertToDto(Transaction transaction) {
+    public static TransactionDto convertToDto(Transaction transaction) {
         TransactionDto dto = new TransactionDto();
         dto.setId(transaction.getId());
         dto.setType(transaction.getType());
@@ -0,0 +1,32 @@
+package com.paisa.util;
+
+import java.util.StringJoiner;
+
+public class CsvWriter {
+    
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+    
+    // RFC 4180 quoting: fields containing a delimiter, quote or line break are quoted with quotes doubled
+    public static String row(Object... values) {
+        StringJoiner row = new StringJoiner(",", "", "\n");
+        for (Object value : values) {
+            row.add(escape(value));
+        }
+        return row.toString();
+    }
+    
+    private static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        // Text that a spreadsheet would evaluate as a formula is prefixed with a quote; numbers are left alone
+        if (value instanceof CharSequence && !text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,54 @@
+package com.paisa.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts the SQL statements Hibernate prepares on the current thread while a scope is open. Registered through
+// hibernate.session_factory.statement_inspector, so Hibernate creates the instance and the state lives in a
+// thread local rather than in the inspector. Statements issued through JdbcTemplate are not seen.
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    public static void begin(String label, int budget, boolean enforce) {
+        CURRENT.set(new Scope(label, budget, enforce));
+    }
+
+    // Closes the scope and returns the statements counted in it, or -1 when none was open
+    public static int end() {
+        Scope scope = CURRENT.get();
+        CURRENT.remove();
+        return scope != null ? scope.count : -1;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.record();
+        }
+        return sql;
+    }
+
+    private static final class Scope {
+
+        private final String label;
+        private final int budget;
+        private final boolean enforce;
+        private int count;
+
+        private Scope(String label, int budget, boolean enforce) {
+            this.label = label;
+            this.budget = budget;
+            this.enforce = enforce;
+        }
+
+        // Failing at the statement that crosses the budget puts the offending call site in the stack trace
+        private void record() {
+            count++;
+            if (enforce && count > budget) {
+                throw new IllegalStateException(
+                        "Query budget exceeded: " + label + " issued " + count + " statements, budget " + budget);
+            }
+        }
+    }
+}
@@ -1,22 +1,15 @@
 package com.paisa.util;
 
-import com.paisa.entity.User;
-import com.paisa.repository.UserRepository;
+import com.paisa.security.UserPrincipal;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 
 public class SecurityUtil {
     
-    public static String getUserIdFromAuthentication(Authentication authentication, UserRepository userRepository) {
-        if (authentication == null || authentication.getPrincipal() == null) {
+    public static String getUserId(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
             throw new RuntimeException("User not authenticated");
         }
         
-        String email = ((UserDetails) authentication.getPrincipal()).getUsername();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        return user.getId();
+        return principal.getId();
     }
 }
-
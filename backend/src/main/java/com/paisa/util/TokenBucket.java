@@ -0,0 +1,45 @@
+package com.paisa.util;
+
+import java.util.concurrent.TimeUnit;
+
+public class TokenBucket {
+    
+    private final long capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+    
+    public TokenBucket(long capacity, long tokensPerMinute) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerMinute / 60_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+    
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+    
+    // Blocks until a token is available, for callers that pace themselves rather than shed load
+    public void acquire() throws InterruptedException {
+        while (!tryAcquire()) {
+            TimeUnit.NANOSECONDS.sleep(nanosUntilNextToken());
+        }
+    }
+    
+    private synchronized long nanosUntilNextToken() {
+        refill();
+        return Math.max(1_000_000L, (long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+    
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
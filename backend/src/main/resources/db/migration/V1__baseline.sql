@@ -0,0 +1,237 @@
+-- Schema as generated by Hibernate (ddl-auto) before migrations were introduced.
+-- Databases created that way are baselined at this version and start from V2.
+
+create table accounts (
+    balance decimal(19,2) not null,
+    is_default bit not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    id varchar(255) not null,
+    name varchar(255) not null,
+    user_id varchar(255) not null,
+    type enum ('CURRENT','SAVINGS') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table balance_snapshots (
+    balance decimal(19,2) not null,
+    sequence bigint not null,
+    taken_at datetime(6) not null,
+    account_id varchar(255) not null,
+    id varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table budget_periods (
+    alerted_threshold integer not null,
+    period_start date not null,
+    spent decimal(19,2) not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    id varchar(255) not null,
+    user_id varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table budgets (
+    amount decimal(19,2) not null,
+    created_at datetime(6) not null,
+    last_alert_sent datetime(6),
+    updated_at datetime(6) not null,
+    id varchar(255) not null,
+    user_id varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table job_checkpoints (
+    completed bit not null,
+    created_at datetime(6) not null,
+    items_processed bigint not null,
+    updated_at datetime(6) not null,
+    id varchar(255) not null,
+    job_name varchar(255) not null,
+    last_processed_id varchar(255),
+    partition_key varchar(255) not null,
+    run_key varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table ledger_entries (
+    amount decimal(19,2) not null,
+    recorded_at datetime(6) not null,
+    sequence bigint not null,
+    account_id varchar(255) not null,
+    id varchar(255) not null,
+    transaction_id varchar(255),
+    kind enum ('OPENING','TRANSACTION','IMPORT','RECURRING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table monthly_rollups (
+    amount decimal(19,2) not null,
+    period_start date not null,
+    created_at datetime(6) not null,
+    transaction_count bigint not null,
+    updated_at datetime(6) not null,
+    category varchar(255) not null,
+    id varchar(255) not null,
+    user_id varchar(255) not null,
+    type enum ('INCOME','EXPENSE') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table platform_stats (
+    amount decimal(19,2) not null,
+    stat_date date not null,
+    created_at datetime(6) not null,
+    item_count bigint not null,
+    updated_at datetime(6) not null,
+    dimension varchar(255) not null,
+    id varchar(255) not null,
+    label varchar(255) not null,
+    metric enum ('TRANSACTIONS','ACTIVE_USERS','ACCOUNT_BALANCES') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table stats_dirty_days (
+    stat_date date not null,
+    marked_at datetime(6) not null,
+    primary key (stat_date)
+) engine=InnoDB;
+
+create table stored_recommendations (
+    created_at datetime(6) not null,
+    generated_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    fingerprint varchar(64) not null,
+    id varchar(255) not null,
+    recommendations TEXT not null,
+    summary TEXT,
+    user_id varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table transactions (
+    amount decimal(19,2) not null,
+    is_recurring bit not null,
+    created_at datetime(6) not null,
+    date datetime(6) not null,
+    last_processed datetime(6),
+    next_recurring_date datetime(6),
+    updated_at datetime(6) not null,
+    account_id varchar(255) not null,
+    category varchar(255) not null,
+    description varchar(255),
+    id varchar(255) not null,
+    receipt_url varchar(255),
+    recurring_source_id varchar(255),
+    user_id varchar(255) not null,
+    recurring_interval enum ('DAILY','WEEKLY','MONTHLY','YEARLY'),
+    status enum ('PENDING','COMPLETED','FAILED') not null,
+    type enum ('INCOME','EXPENSE') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    email varchar(255) not null,
+    id varchar(255) not null,
+    image_url varchar(255),
+    name varchar(255),
+    password varchar(255) not null,
+    role enum ('USER','ADMIN') not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table balance_snapshots
+   add constraint uk_balance_snapshot_sequence unique (account_id, sequence);
+
+alter table budget_periods
+   add constraint uk_budget_period_user_period unique (user_id, period_start);
+
+create index idx_user_id
+   on budgets (user_id);
+
+alter table budgets
+   add constraint UK_oc53riadut4keja894e9rdmq9 unique (user_id);
+
+alter table job_checkpoints
+   add constraint uk_job_checkpoint_partition unique (job_name, run_key, partition_key);
+
+alter table ledger_entries
+   add constraint uk_ledger_entry_sequence unique (account_id, sequence);
+
+alter table monthly_rollups
+   add constraint uk_rollup_user_period_type_category unique (user_id, period_start, type, category);
+
+alter table platform_stats
+   add constraint uk_platform_stat unique (metric, stat_date, dimension, label);
+
+alter table stored_recommendations
+   add constraint UK_adk6yxvib4vmlx2rvq8ga28a9 unique (user_id);
+
+create index idx_user_id
+   on transactions (user_id);
+
+create index idx_account_id
+   on transactions (account_id);
+
+create index idx_transactions_user_date
+   on transactions (user_id, date, id);
+
+create index idx_transactions_account_date
+   on transactions (account_id, date, id);
+
+create index idx_transactions_user_category_date
+   on transactions (user_id, category, date, id);
+
+create index idx_transactions_recurring_due
+   on transactions (is_recurring, next_recurring_date, id);
+
+create index idx_transactions_date
+   on transactions (date);
+
+create index idx_transactions_updated
+   on transactions (updated_at, id);
+
+alter table transactions
+   add constraint uk_transactions_recurring_occurrence unique (recurring_source_id, date);
+
+alter table users
+   add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table accounts
+   add constraint FKnjuop33mo69pd79ctplkck40n
+   foreign key (user_id)
+   references users (id);
+
+alter table budget_periods
+   add constraint FKki6byexioybdjgru19q3wkadt
+   foreign key (user_id)
+   references users (id);
+
+alter table budgets
+   add constraint FKln0tm5tgf3f9q3sp9sa5m8m7b
+   foreign key (user_id)
+   references users (id);
+
+alter table monthly_rollups
+   add constraint FKbe222k202hdvbtbn4whe6qgu
+   foreign key (user_id)
+   references users (id);
+
+alter table stored_recommendations
+   add constraint FK9jl47kegfo9evbgxnnnk2tcwx
+   foreign key (user_id)
+   references users (id);
+
+alter table transactions
+   add constraint FK20w7wsg13u9srbq3bd7chfxdh
+   foreign key (account_id)
+   references accounts (id);
+
+alter table transactions
+   add constraint FKqwv7rmvc8va8rep7piikrojds
+   foreign key (user_id)
+   references users (id);
@@ -0,0 +1,6 @@
+-- Hot transaction reads filter by user or account and range or sort on date; type filters ride their own index.
+CREATE INDEX idx_transactions_user_type_date ON transactions (user_id, type, date, id);
+
+-- Leading columns of idx_transactions_user_date and idx_transactions_account_date, which also back the foreign keys
+DROP INDEX idx_user_id ON transactions;
+DROP INDEX idx_account_id ON transactions;
@@ -0,0 +1,3 @@
+-- Admin user and account pages seek and sort on (created_at DESC, id DESC); without these each page is a full scan
+CREATE INDEX idx_users_created ON users (created_at, id);
+CREATE INDEX idx_accounts_created ON accounts (created_at, id);
@@ -0,0 +1,158 @@
+package com.paisa.controller;
+
+import com.paisa.dto.AccountDto;
+import com.paisa.dto.TransactionDto;
+import com.paisa.entity.Account;
+import com.paisa.entity.Transaction;
+import com.paisa.entity.User;
+import com.paisa.repository.AccountRepository;
+import com.paisa.repository.TransactionRepository;
+import com.paisa.repository.UserRepository;
+import com.paisa.security.UserPrincipal;
+import com.paisa.service.AccountService;
+import com.paisa.service.TransactionService;
+import com.paisa.util.SecurityUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Enforce mode as CI runs it: an endpoint that queries once per row fails the request, one within budget passes
+@SpringBootTest(properties = "query-budget.enforce=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryBudgetInterceptorTest {
+
+    private static final int ACCOUNTS = 5;
+    private static final int TRANSACTIONS_PER_ACCOUNT = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Authentication user;
+
+    @BeforeEach
+    void setUp() {
+        User entity = new User();
+        entity.setEmail("budget-" + UUID.randomUUID() + "@paisa.test");
+        entity.setPassword("unused");
+        entity.setName("Budget");
+        entity = userRepository.save(entity);
+        UserPrincipal principal = new UserPrincipal(entity.getId(), entity.getEmail(), entity.getName(), null,
+                User.Role.USER);
+        user = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        for (int a = 0; a < ACCOUNTS; a++) {
+            AccountDto account = new AccountDto();
+            account.setName("Account " + a);
+            account.setType(Account.AccountType.CURRENT);
+            String accountId = accountService.createAccount(account, entity.getId()).getId();
+            for (int t = 0; t < TRANSACTIONS_PER_ACCOUNT; t++) {
+                TransactionDto transaction = new TransactionDto();
+                transaction.setType(Transaction.TransactionType.EXPENSE);
+                transaction.setAmount(new BigDecimal("12.50"));
+                transaction.setDescription("Groceries");
+                transaction.setDate(LocalDateTime.of(2026, 9, 1 + t, 12, 0));
+                transaction.setCategory("groceries");
+                transaction.setAccountId(accountId);
+                transactionService.createTransaction(transaction, entity.getId());
+            }
+        }
+    }
+
+    @Test
+    void failsARequestThatQueriesOncePerRow() {
+        double exceededBefore = exceeded("/test/transactions-by-account");
+
+        assertThatThrownBy(() -> mockMvc.perform(get("/test/transactions-by-account").with(authentication(user))))
+                .hasRootCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("Query budget exceeded: GET /test/transactions-by-account issued 4 statements, "
+                        + "budget 3");
+        assertThat(exceeded("/test/transactions-by-account")).isEqualTo(exceededBefore + 1);
+    }
+
+    @Test
+    void passesAnEndpointWithinItsBudget() throws Exception {
+        double exceededBefore = exceeded("/transactions");
+
+        mockMvc.perform(get("/transactions").with(authentication(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ACCOUNTS * TRANSACTIONS_PER_ACCOUNT));
+
+        assertThat(exceeded("/transactions")).isEqualTo(exceededBefore);
+        assertThat(meterRegistry.get("paisa.http.queries").tag("uri", "/transactions").summary().max())
+                .isLessThanOrEqualTo(3);
+    }
+
+    private double exceeded(String uri) {
+        Counter counter = meterRegistry.find("paisa.http.query.budget.exceeded").tag("uri", uri).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @TestConfiguration
+    static class Endpoints {
+
+        @Bean
+        TransactionsByAccountController transactionsByAccountController(AccountRepository accountRepository,
+                                                                        TransactionRepository transactionRepository) {
+            return new TransactionsByAccountController(accountRepository, transactionRepository);
+        }
+    }
+
+    // The shape the budget exists to catch: one query for the accounts, then one more per account
+    @RestController
+    @QueryBudget(3)
+    static class TransactionsByAccountController {
+
+        private final AccountRepository accountRepository;
+        private final TransactionRepository transactionRepository;
+
+        TransactionsByAccountController(AccountRepository accountRepository,
+                                        TransactionRepository transactionRepository) {
+            this.accountRepository = accountRepository;
+            this.transactionRepository = transactionRepository;
+        }
+
+        @GetMapping("/test/transactions-by-account")
+        Object transactionsByAccount(Authentication authentication) {
+            return accountRepository.findByUserId(SecurityUtil.getUserId(authentication)).stream()
+                    .collect(Collectors.toMap(Account::getName,
+                            account -> transactionRepository.findByAccountIdOrderByDateDesc(account.getId()).size()));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.paisa.controller;
+
+import com.paisa.dto.AccountDto;
+import com.paisa.dto.TransactionDto;
+import com.paisa.entity.Account;
+import com.paisa.entity.Transaction;
+import com.paisa.entity.User;
+import com.paisa.repository.UserRepository;
+import com.paisa.security.UserPrincipal;
+import com.paisa.service.AccountService;
+import com.paisa.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransactionControllerTest {
+
+    private static final int TRANSACTIONS = 25;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private Authentication user;
+    private String userId;
+    private String accountId;
+
+    @BeforeEach
+    void setUp() {
+        User entity = new User();
+        entity.setEmail("stream-" + UUID.randomUUID() + "@paisa.test");
+        entity.setPassword("unused");
+        entity.setName("Stream");
+        entity = userRepository.save(entity);
+        userId = entity.getId();
+        UserPrincipal principal = new UserPrincipal(entity.getId(), entity.getEmail(), entity.getName(), null,
+                User.Role.USER);
+        user = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        AccountDto account = new AccountDto();
+        account.setName("Current");
+        account.setType(Account.AccountType.CURRENT);
+        accountId = accountService.createAccount(account, entity.getId()).getId();
+        for (int t = 0; t < TRANSACTIONS; t++) {
+            TransactionDto transaction = new TransactionDto();
+            transaction.setType(t % 5 == 0 ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE);
+            transaction.setAmount(new BigDecimal("10.00").add(BigDecimal.valueOf(t)));
+            transaction.setDescription("Row " + t);
+            transaction.setDate(LocalDateTime.of(2026, 9, 1, 12, 0).plusHours(t));
+            transaction.setCategory(t % 5 == 0 ? "salary" : "groceries");
+            transaction.setAccountId(accountId);
+            transactionService.createTransaction(transaction, entity.getId());
+        }
+    }
+
+    @Test
+    void streamsEveryTransactionAsNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/transactions/stream").with(authentication(user)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body.lines()).hasSize(TRANSACTIONS).allMatch(line -> line.startsWith("{\"id\":"));
+    }
+
+    @Test
+    void streamsOnlyTheFilteredTransactions() throws Exception {
+        MvcResult started = mockMvc.perform(get("/transactions/stream").param("type", "INCOME")
+                        .with(authentication(user)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body.lines()).hasSize(TRANSACTIONS / 5).allMatch(line -> line.contains("\"type\":\"INCOME\""));
+    }
+
+    @Test
+    void rejectsMalformedJsonWithItsPosition() throws Exception {
+        // The second row is missing the comma that separates it from the first
+        String body = "[\n" + row("10.00") + "\n" + row("20.00") + "\n]";
+
+        mockMvc.perform(post("/transactions/import").with(authentication(user))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.importedRows").value(0))
+                .andExpect(jsonPath("$.errors[0].row").value(0))
+                .andExpect(jsonPath("$.errors[0].message").value(startsWith("Malformed JSON at line 3, column 2:")));
+
+        assertThat(transactionService.getUserTransactions(userId)).hasSize(TRANSACTIONS);
+    }
+
+    private String row(String amount) {
+        return "{\"type\":\"EXPENSE\",\"amount\":" + amount + ",\"description\":\"Imported\"," +
+                "\"date\":\"2026-09-10T12:00:00\",\"category\":\"groceries\",\"accountId\":\"" + accountId + "\"}";
+    }
+}
@@ -0,0 +1,263 @@
+package com.paisa.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs every TransactionRepository query against MySQL and fails when the executed plan scanned a whole table,
+// used no index or sorted rows (filesort). The statement counters in performance_schema are read rather than
+// EXPLAIN because the driver sends server-side prepared statements, whose recorded text has placeholders
+// instead of the bound values. Needs a disposable MySQL 8.0.16+ database, which the test profile's ddl-auto
+// recreates from the entity indexes; skipped unless PLAN_CHECK_DB_URL is set.
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "PLAN_CHECK_DB_URL", matches = ".+")
+class TransactionQueryPlanTest {
+
+    private static final int USERS = 40;
+    private static final int ACCOUNTS_PER_USER = 2;
+    private static final int TRANSACTIONS_PER_ACCOUNT = 150;
+    private static final List<String> CATEGORIES = List.of("groceries", "rent", "salary", "utilities",
+            "entertainment", "travel", "shopping", "healthcare", "education", "dining");
+
+    // Repository methods whose plans may scan or sort
+    private static final Set<String> ALLOWED = Set.of();
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void mysql(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("PLAN_CHECK_DB_URL"));
+        registry.add("spring.datasource.username",
+                () -> Objects.requireNonNullElse(System.getenv("PLAN_CHECK_DB_USERNAME"), "root"));
+        registry.add("spring.datasource.password",
+                () -> Objects.requireNonNullElse(System.getenv("PLAN_CHECK_DB_PASSWORD"), ""));
+        registry.add("spring.datasource.driver-class-name", () -> "com.mysql.cj.jdbc.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.MySQLDialect");
+    }
+
+    @BeforeEach
+    void seed() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class);
+        if (rows != null && rows > 0) {
+            return;
+        }
+        // Enough rows over enough users that the optimizer prefers the indexes, as it does on real data
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> accounts = new ArrayList<>();
+        List<Object[]> transactions = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            String userId = UUID.randomUUID().toString();
+            Timestamp created = Timestamp.valueOf(now.minusDays(800 - u));
+            users.add(new Object[] {userId, "plan" + u + "@paisa.test", "unused", "USER", "Plan " + u, created,
+                    created});
+            for (int a = 0; a < ACCOUNTS_PER_USER; a++) {
+                String accountId = UUID.randomUUID().toString();
+                accounts.add(new Object[] {accountId, "Account " + a, a == 0 ? "CURRENT" : "SAVINGS",
+                        BigDecimal.ZERO, a == 0, userId, created, created});
+                for (int t = 0; t < TRANSACTIONS_PER_ACCOUNT; t++) {
+                    LocalDateTime date = now.minusMinutes(random.nextInt(730 * 24 * 60));
+                    boolean recurring = random.nextInt(20) == 0;
+                    transactions.add(new Object[] {UUID.randomUUID().toString(),
+                            random.nextInt(4) == 0 ? "INCOME" : "EXPENSE",
+                            BigDecimal.valueOf(100 + random.nextInt(500_000), 2), "Plan check row",
+                            Timestamp.valueOf(date), CATEGORIES.get(random.nextInt(CATEGORIES.size())), recurring,
+                            recurring ? "MONTHLY" : null, recurring ? Timestamp.valueOf(date.plusMonths(1)) : null,
+                            "COMPLETED", userId, accountId, Timestamp.valueOf(date), Timestamp.valueOf(date)});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, role, name, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO accounts (id, name, type, balance, is_default, user_id, created_at, " +
+                "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", accounts);
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (id, type, amount, description, date, category, " +
+                "is_recurring, recurring_interval, next_recurring_date, status, user_id, account_id, created_at, " +
+                "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", transactions);
+        jdbcTemplate.queryForList("ANALYZE TABLE users, accounts, transactions");
+    }
+
+    @Test
+    void keepsTheCompositeTransactionIndexes() {
+        Map<String, String> indexes = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT INDEX_NAME, GROUP_CONCAT(COLUMN_NAME ORDER BY SEQ_IN_INDEX) " +
+                "FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' " +
+                "GROUP BY INDEX_NAME", rs -> {
+                    indexes.put(rs.getString(1), rs.getString(2));
+                });
+
+        assertThat(indexes)
+                .containsEntry("idx_transactions_user_date", "user_id,date,id")
+                .containsEntry("idx_transactions_account_date", "account_id,date,id")
+                .containsEntry("idx_transactions_user_type_date", "user_id,type,date,id")
+                .containsEntry("idx_transactions_user_category_date", "user_id,category,date,id")
+                .containsEntry("idx_transactions_recurring_due", "is_recurring,next_recurring_date,id")
+                .containsEntry("idx_transactions_updated", "updated_at,id");
+    }
+
+    @Test
+    void servesEveryRepositoryQueryFromAnIndex() {
+        Sample sample = jdbcTemplate.query(
+                "SELECT user_id, account_id, id, category FROM transactions ORDER BY date DESC LIMIT 1",
+                rs -> rs.next() ? new Sample(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4)) : null);
+        assertThat(sample).isNotNull();
+
+        List<Method> methods = Arrays.stream(TransactionRepository.class.getDeclaredMethods())
+                .filter(method -> !method.isDefault() && !method.isSynthetic())
+                .sorted(Comparator.comparing(Method::getName))
+                .toList();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<String> regressions = new ArrayList<>();
+        for (Method method : methods) {
+            List<Map<String, Object>> statements = transactionTemplate.execute(status -> {
+                // Modifying queries run too; nothing is committed
+                status.setRollbackOnly();
+                long mark = lastEventId();
+                invoke(method, sample);
+                return statementsSince(mark);
+            });
+            assertThat(statements).as("statements recorded for %s", method.getName()).isNotEmpty();
+            for (Map<String, Object> statement : statements) {
+                long scans = count(statement, "SELECT_SCAN") + count(statement, "SELECT_FULL_JOIN");
+                long sortedRows = count(statement, "SORT_ROWS");
+                long noIndex = count(statement, "NO_INDEX_USED");
+                if ((scans > 0 || sortedRows > 0 || noIndex > 0) && !ALLOWED.contains(method.getName())) {
+                    regressions.add(String.format("%s: full scans=%d, sorted rows=%d, no index=%d: %s",
+                            method.getName(), scans, sortedRows, noIndex, statement.get("SQL_TEXT")));
+                }
+            }
+        }
+
+        assertThat(regressions).isEmpty();
+    }
+
+    private long lastEventId() {
+        Long eventId = jdbcTemplate.queryForObject(
+                "SELECT MAX(EVENT_ID) FROM performance_schema.events_statements_history " +
+                "WHERE THREAD_ID = PS_CURRENT_THREAD_ID()", Long.class);
+        return eventId != null ? eventId : 0;
+    }
+
+    private List<Map<String, Object>> statementsSince(long eventId) {
+        return jdbcTemplate.queryForList(
+                "SELECT SQL_TEXT, SELECT_SCAN, SELECT_FULL_JOIN, SORT_ROWS, NO_INDEX_USED " +
+                "FROM performance_schema.events_statements_history " +
+                "WHERE THREAD_ID = PS_CURRENT_THREAD_ID() AND EVENT_ID > ? AND SQL_TEXT LIKE '%transactions%' " +
+                "AND SQL_TEXT NOT LIKE '%performance_schema%' ORDER BY EVENT_ID", eventId);
+    }
+
+    private void invoke(Method method, Sample sample) {
+        Object[] arguments = Arrays.stream(method.getParameters())
+                .map(parameter -> argument(parameter, sample))
+                .toArray();
+        try {
+            Object result = method.invoke(transactionRepository, arguments);
+            if (result instanceof Stream<?> stream) {
+                try (stream) {
+                    stream.forEach(row -> { });
+                }
+            }
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not run " + method.getName(), e);
+        }
+    }
+
+    // Sample values shaped like the application's own calls: first pages, the last 90 days, the newest row's ids
+    private static Object argument(Parameter parameter, Sample sample) {
+        Param param = parameter.getAnnotation(Param.class);
+        String name = (param != null ? param.value() : parameter.getName()).toLowerCase(Locale.ROOT);
+        Class<?> type = parameter.getType();
+        boolean upperBound = name.equals("to") || name.equals("end") || name.equals("until");
+        if (name.startsWith("cursor")) {
+            return null;
+        }
+        if (type == String.class) {
+            if (name.contains("user")) {
+                return sample.userId();
+            }
+            if (name.contains("account")) {
+                return sample.accountId();
+            }
+            if (name.equals("category")) {
+                return sample.category();
+            }
+            return name.equals("afterid") ? "" : sample.transactionId();
+        }
+        if (type == LocalDateTime.class) {
+            return upperBound ? LocalDateTime.now() : LocalDateTime.now().minusDays(90);
+        }
+        if (type == LocalDate.class) {
+            return upperBound ? LocalDate.now() : LocalDate.now().minusDays(90);
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(0, 50);
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return List.of(sample.transactionId());
+        }
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        return null;
+    }
+
+    private static long count(Map<String, Object> statement, String column) {
+        Object value = statement.get(column);
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+
+    private record Sample(String userId, String accountId, String transactionId, String category) {
+    }
+}
@@ -0,0 +1,281 @@
+package com.paisa.service;
+
+import com.paisa.controller.AIController;
+import com.paisa.dto.AIRecommendationDto;
+import com.paisa.entity.Transaction;
+import com.paisa.entity.User;
+import com.paisa.repository.TransactionRepository;
+import com.paisa.security.UserPrincipal;
+import com.paisa.util.TokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AIServiceTest {
+
+    private static final Duration READ_TIMEOUT = Duration.ofMillis(500);
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final Duration OPEN_DURATION = Duration.ofMillis(300);
+
+    private GeminiStub gemini;
+    private MeterRegistry meterRegistry;
+    private AIRecommendationCache recommendationCache;
+    private AIService aiService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        gemini = new GeminiStub();
+        meterRegistry = new SimpleMeterRegistry();
+        recommendationCache = new AIRecommendationCache(meterRegistry, 100, Duration.ofMinutes(5));
+        aiService = new AIService(null, recommendationCache, meterRegistry);
+        ReflectionTestUtils.setField(aiService, "geminiApiKey", "test-key");
+        ReflectionTestUtils.setField(aiService, "geminiBaseUrl", gemini.baseUrl());
+        ReflectionTestUtils.setField(aiService, "connectTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(aiService, "readTimeout", READ_TIMEOUT);
+        ReflectionTestUtils.setField(aiService, "maxConnections", 10);
+        ReflectionTestUtils.setField(aiService, "maxConcurrentCalls", 10);
+        ReflectionTestUtils.setField(aiService, "requestsPerMinute", 600L);
+        ReflectionTestUtils.setField(aiService, "rateLimitBurst", 50L);
+        ReflectionTestUtils.setField(aiService, "failureThreshold", FAILURE_THRESHOLD);
+        ReflectionTestUtils.setField(aiService, "openDuration", OPEN_DURATION);
+        aiService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        aiService.shutdown();
+        gemini.close();
+    }
+
+    @Test
+    void returnsBeforeGeminiResponds() throws Exception {
+        gemini.recommends(List.of("Cook at home twice a week"), "Dining out leads spending").hold();
+
+        CompletableFuture<AIRecommendationDto> result = aiService.getRecommendationsAsync("user-1", profile());
+
+        assertThat(gemini.awaitRequest(Duration.ofSeconds(5))).isTrue();
+        assertThat(result).isNotDone();
+        gemini.release();
+        AIRecommendationDto recommendations = result.get(5, TimeUnit.SECONDS);
+        assertThat(recommendations.getRecommendations()).containsExactly("Cook at home twice a week");
+        assertThat(recommendations.getSummary()).isEqualTo("Dining out leads spending");
+        assertThat(geminiCalls("success")).isEqualTo(1);
+        assertThat(aiService.getCachedRecommendations("user-1", profile())).isEqualTo(recommendations);
+    }
+
+    @Test
+    void failsSlowCallsAtTheReadTimeout() {
+        gemini.recommends(List.of("Too late"), "Too late").delay(READ_TIMEOUT.multipliedBy(6));
+
+        long started = System.nanoTime();
+        CompletableFuture<AIRecommendationDto> result = aiService.getRecommendationsAsync("user-1", profile());
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(READ_TIMEOUT.multipliedBy(4));
+        assertThat(geminiCalls("timeout")).isEqualTo(1);
+        assertThat(aiService.getCachedRecommendations("user-1", profile())).isNull();
+    }
+
+    @Test
+    void fallsBackToDefaultsWhenGeminiFails() throws Exception {
+        gemini.respond(500, "{\"error\":{\"code\":500,\"message\":\"internal\"}}");
+
+        ResponseEntity<AIRecommendationDto> response = recommendationsEndpoint("user-1");
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody()).isEqualTo(aiService.getDefaultRecommendations());
+        assertThat(geminiCalls("error")).isEqualTo(1);
+        assertThat(aiService.getCachedRecommendations("user-1", profile())).isNull();
+    }
+
+    @Test
+    void doesNotCacheDefaultsParsedFromAnUnreadableBody() throws Exception {
+        gemini.respond(200, "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"{not json}\"}]}}]}");
+
+        AIRecommendationDto recommendations = aiService.getRecommendationsAsync("user-1", profile())
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(recommendations).isEqualTo(aiService.getDefaultRecommendations());
+        assertThat(aiService.getCachedRecommendations("user-1", profile())).isNull();
+    }
+
+    @Test
+    void coalescesConcurrentIdenticalRequestsIntoOneCall() throws Exception {
+        gemini.recommends(List.of("Move the surplus to savings"), "Healthy surplus").hold();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<CompletableFuture<AIRecommendationDto>>> calls = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                calls.add(CompletableFuture.supplyAsync(
+                        () -> aiService.getRecommendationsAsync("user-1", profile()), callers));
+            }
+            assertThat(gemini.awaitRequest(Duration.ofSeconds(5))).isTrue();
+            for (CompletableFuture<CompletableFuture<AIRecommendationDto>> call : calls) {
+                call.get(5, TimeUnit.SECONDS);
+            }
+            gemini.release();
+
+            for (CompletableFuture<CompletableFuture<AIRecommendationDto>> call : calls) {
+                assertThat(call.get().get(5, TimeUnit.SECONDS).getRecommendations())
+                        .containsExactly("Move the surplus to savings");
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertThat(gemini.requests()).isEqualTo(1);
+        assertThat(meterRegistry.get("paisa.ai.calls.coalesced").counter().count()).isEqualTo(7);
+    }
+
+    @Test
+    void opensTheBreakerAfterConsecutiveFailuresAndHalfOpensAfterTheCooldown() throws Exception {
+        gemini.respond(503, "{\"error\":{\"code\":503,\"message\":\"overloaded\"}}");
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThat(aiService.getRecommendationsAsync("user-" + i, profile())).failsWithin(Duration.ofSeconds(5));
+        }
+        assertThat(aiService.isAvailable()).isFalse();
+
+        // Open: rejected without reaching Gemini
+        assertThat(aiService.getRecommendationsAsync("user-open", profile())).failsWithin(Duration.ofSeconds(1));
+        assertThat(gemini.requests()).isEqualTo(FAILURE_THRESHOLD);
+        assertThat(rejectedCalls("circuit-open")).isEqualTo(1);
+
+        // Half-open: one trial call goes through; its failure opens the breaker again
+        Thread.sleep(OPEN_DURATION.plusMillis(100).toMillis());
+        assertThat(aiService.getRecommendationsAsync("user-trial", profile())).failsWithin(Duration.ofSeconds(5));
+        assertThat(gemini.requests()).isEqualTo(FAILURE_THRESHOLD + 1);
+        assertThat(aiService.isAvailable()).isFalse();
+
+        // A successful trial closes it
+        Thread.sleep(OPEN_DURATION.plusMillis(100).toMillis());
+        gemini.recommends(List.of("Back to normal"), "Recovered");
+        assertThat(aiService.getRecommendationsAsync("user-recovered", profile()).get(5, TimeUnit.SECONDS)
+                .getRecommendations()).containsExactly("Back to normal");
+        assertThat(aiService.isAvailable()).isTrue();
+        assertThat(gemini.requests()).isEqualTo(FAILURE_THRESHOLD + 2);
+    }
+
+    @Test
+    void fallsBackToDefaultsOnceTheRateLimitIsExhausted() throws Exception {
+        gemini.recommends(List.of("Within the limit"), "Within the limit");
+        ReflectionTestUtils.setField(aiService, "rateLimiter", new TokenBucket(2, 1));
+
+        assertThat(recommendationsEndpoint("user-1").getBody().getRecommendations())
+                .containsExactly("Within the limit");
+        assertThat(recommendationsEndpoint("user-2").getBody().getRecommendations())
+                .containsExactly("Within the limit");
+        ResponseEntity<AIRecommendationDto> limited = recommendationsEndpoint("user-3");
+
+        assertThat(limited.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(limited.getBody()).isEqualTo(aiService.getDefaultRecommendations());
+        assertThat(gemini.requests()).isEqualTo(2);
+        assertThat(rejectedCalls("rate-limit")).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsCallsBeyondTheConcurrencyLimit() throws Exception {
+        gemini.recommends(List.of("Slow answer"), "Slow answer").hold();
+        ReflectionTestUtils.setField(aiService, "inFlightCalls", new Semaphore(1));
+
+        CompletableFuture<AIRecommendationDto> inFlight = aiService.getRecommendationsAsync("user-1", profile());
+        assertThat(gemini.awaitRequest(Duration.ofSeconds(5))).isTrue();
+        assertThat(aiService.getRecommendationsAsync("user-2", profile())).isCompletedExceptionally();
+        assertThat(rejectedCalls("bulkhead")).isEqualTo(1);
+
+        gemini.release();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS).getRecommendations()).containsExactly("Slow answer");
+        assertThat(gemini.requests()).isEqualTo(1);
+    }
+
+    @Test
+    void fingerprintsTheSameTotalsAlikeWhateverOrderTheyArriveIn() {
+        TransactionRepository transactionRepository = mock(TransactionRepository.class);
+        when(transactionRepository.sumByType(eq("user-1"), any(), any())).thenReturn(List.of());
+        when(transactionRepository.sumByCategory(eq("user-1"), eq(Transaction.TransactionType.EXPENSE), any(), any()))
+                .thenReturn(List.of(categoryTotal("rent", "30000.00"), categoryTotal("groceries", "9000.00"),
+                        categoryTotal("travel", "4500.00")))
+                .thenReturn(List.of(categoryTotal("travel", "4500.00"), categoryTotal("rent", "30000.00"),
+                        categoryTotal("groceries", "9000.00")));
+        AIService service = new AIService(transactionRepository, recommendationCache, meterRegistry);
+
+        SpendProfile first = service.loadProfile("user-1");
+        SpendProfile second = service.loadProfile("user-1");
+
+        assertThat(first.expensesByCategory()).extracting(TransactionRepository.CategoryTotal::getCategory)
+                .containsExactly("groceries", "rent", "travel");
+        assertThat(service.fingerprint(second)).isEqualTo(service.fingerprint(first));
+    }
+
+    // The controller as a request would reach it, with InsightService reduced to the Gemini call
+    private ResponseEntity<AIRecommendationDto> recommendationsEndpoint(String userId) throws Exception {
+        InsightService insightService = mock(InsightService.class);
+        when(insightService.getRecommendationsAsync(anyString()))
+                .thenAnswer(call -> aiService.getRecommendationsAsync(call.getArgument(0), profile()));
+        return new AIController(aiService, insightService).getRecommendations(authentication(userId))
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    private double rejectedCalls(String reason) {
+        return meterRegistry.counter("paisa.ai.calls.rejected", "reason", reason).count();
+    }
+
+    private long geminiCalls(String outcome) {
+        return meterRegistry.get("paisa.ai.gemini.calls").tag("outcome", outcome).timer().count();
+    }
+
+    private static SpendProfile profile() {
+        LocalDateTime to = LocalDateTime.of(2026, 10, 1, 0, 0);
+        return new SpendProfile(to.minusMonths(3), to, new BigDecimal("90000.00"), new BigDecimal("54000.00"),
+                List.of());
+    }
+
+    private static TransactionRepository.CategoryTotal categoryTotal(String category, String total) {
+        return new TransactionRepository.CategoryTotal() {
+            @Override
+            public String getCategory() {
+                return category;
+            }
+
+            @Override
+            public BigDecimal getTotal() {
+                return new BigDecimal(total);
+            }
+
+            @Override
+            public Long getTransactionCount() {
+                return 1L;
+            }
+        };
+    }
+
+    private static Authentication authentication(String userId) {
+        UserPrincipal principal = new UserPrincipal(userId, userId + "@paisa.test", "Test", null, User.Role.USER);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
@@ -0,0 +1,157 @@
+package com.paisa.service;
+
+import com.paisa.dto.AccountDto;
+import com.paisa.dto.TransactionDto;
+import com.paisa.entity.Account;
+import com.paisa.entity.Transaction;
+import com.paisa.entity.User;
+import com.paisa.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Many writers against one account: every balance change must land in accounts.balance and in the ledger
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountBalanceConcurrencyTest {
+
+    private static final int WRITERS = 16;
+    private static final int TRANSACTIONS = 300;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String userId;
+    private String accountId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("concurrency-" + UUID.randomUUID() + "@paisa.test");
+        user.setPassword("unused");
+        user.setName("Concurrency");
+        userId = userRepository.save(user).getId();
+
+        AccountDto account = new AccountDto();
+        account.setName("Current");
+        account.setType(Account.AccountType.CURRENT);
+        account.setBalance(OPENING_BALANCE);
+        accountId = accountService.createAccount(account, userId).getId();
+    }
+
+    @Test
+    void keepsTheBalanceEqualToTheLedgerUnderConcurrentCreatesUpdatesAndDeletes() throws Exception {
+        // Every third transaction is only created, every third updated to a different amount and type, every
+        // third deleted again; the writers start together so the three kinds of write interleave
+        BigDecimal expected = OPENING_BALANCE;
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            switch (i % 3) {
+                case 0 -> expected = expected.add(delta(type(i), amount(i)));
+                case 1 -> expected = expected.add(delta(type(i + 1), updatedAmount(i)));
+                default -> { }
+            }
+        }
+
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> calls = new ArrayList<>();
+        try {
+            for (int i = 0; i < TRANSACTIONS; i++) {
+                int n = i;
+                calls.add(CompletableFuture.runAsync(() -> write(start, n), writers));
+            }
+            start.countDown();
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+        } finally {
+            writers.shutdownNow();
+        }
+
+        BigDecimal balance = jdbcTemplate.queryForObject(
+                "SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+        BigDecimal ledgerTotal = jdbcTemplate.queryForObject(
+                "SELECT SUM(amount) FROM ledger_entries WHERE account_id = ?", BigDecimal.class, accountId);
+        Long entries = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ledger_entries WHERE account_id = ?", Long.class, accountId);
+        Long lastSequence = jdbcTemplate.queryForObject(
+                "SELECT MAX(sequence) FROM ledger_entries WHERE account_id = ?", Long.class, accountId);
+
+        assertThat(balance).isEqualByComparingTo(expected);
+        assertThat(ledgerTotal).isEqualByComparingTo(balance);
+        // Opening entry, one per create, one per update and one per delete, numbered without gaps
+        assertThat(entries).isEqualTo(1L + TRANSACTIONS + 2L * (TRANSACTIONS / 3));
+        assertThat(lastSequence).isEqualTo(entries);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE account_id = ?",
+                Long.class, accountId)).isEqualTo(TRANSACTIONS - TRANSACTIONS / 3);
+    }
+
+    private void write(CountDownLatch start, int n) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        TransactionDto created = transactionService.createTransaction(transaction(type(n), amount(n)), userId);
+        switch (n % 3) {
+            case 1 -> transactionService.updateTransaction(created.getId(),
+                    transaction(type(n + 1), updatedAmount(n)), userId);
+            case 2 -> transactionService.deleteTransaction(created.getId(), userId);
+            default -> { }
+        }
+    }
+
+    private TransactionDto transaction(Transaction.TransactionType type, BigDecimal amount) {
+        TransactionDto dto = new TransactionDto();
+        dto.setType(type);
+        dto.setAmount(amount);
+        dto.setDescription("Concurrent write");
+        dto.setDate(LocalDateTime.of(2026, 9, 15, 12, 0));
+        dto.setCategory("groceries");
+        dto.setIsRecurring(false);
+        dto.setStatus(Transaction.TransactionStatus.COMPLETED);
+        dto.setAccountId(accountId);
+        return dto;
+    }
+
+    private static Transaction.TransactionType type(int n) {
+        return n % 2 == 0 ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE;
+    }
+
+    private static BigDecimal amount(int n) {
+        return BigDecimal.valueOf(100 + n % 97, 2).add(BigDecimal.valueOf(n % 13));
+    }
+
+    private static BigDecimal updatedAmount(int n) {
+        return amount(n).add(new BigDecimal("7.25"));
+    }
+
+    private static BigDecimal delta(Transaction.TransactionType type, BigDecimal amount) {
+        return type == Transaction.TransactionType.INCOME ? amount : amount.negate();
+    }
+}
@@ -0,0 +1,136 @@
+package com.paisa.service;
+
+import com.paisa.dto.AccountDto;
+import com.paisa.dto.DashboardSummaryDto;
+import com.paisa.dto.TransactionDto;
+import com.paisa.entity.Account;
+import com.paisa.entity.Transaction;
+import com.paisa.entity.User;
+import com.paisa.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountServiceTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private BudgetTrackingService budgetTrackingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String userId;
+    private String kept;
+    private String deleted;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("accounts-" + UUID.randomUUID() + "@paisa.test");
+        user.setPassword("unused");
+        user.setName("Accounts");
+        userId = userRepository.save(user).getId();
+
+        kept = account("Current");
+        deleted = account("Card");
+        transaction(kept, Transaction.TransactionType.INCOME, "salary", "1000.00");
+        transaction(kept, Transaction.TransactionType.EXPENSE, "groceries", "200.00");
+        transaction(deleted, Transaction.TransactionType.EXPENSE, "groceries", "50.00");
+        transaction(deleted, Transaction.TransactionType.EXPENSE, "rent", "300.00");
+        transaction(deleted, Transaction.TransactionType.INCOME, "refund", "25.00");
+    }
+
+    @Test
+    void takesADeletedAccountsTransactionsOutOfTheDashboard() {
+        DashboardSummaryDto before = dashboardService.getDashboardSummary(userId);
+        assertThat(before.getMonthlyIncome()).isEqualByComparingTo("1025.00");
+        assertThat(before.getMonthlyExpense()).isEqualByComparingTo("550.00");
+
+        accountService.deleteAccount(deleted, userId);
+
+        DashboardSummaryDto after = dashboardService.getDashboardSummary(userId);
+        assertThat(after.getMonthlyIncome()).isEqualByComparingTo("1000.00");
+        assertThat(after.getMonthlyExpense()).isEqualByComparingTo("200.00");
+        assertThat(after.getExpensesByCategory()).containsOnlyKeys("groceries");
+        assertThat(after.getExpensesByCategory().get("groceries")).isEqualByComparingTo("200.00");
+        assertThat(after.getAccounts()).extracting(AccountDto::getId).containsExactly(kept);
+    }
+
+    @Test
+    void takesADeletedAccountsExpensesOutOfTheBudgetPeriod() {
+        assertThat(spent()).isEqualByComparingTo("550.00");
+
+        accountService.deleteAccount(deleted, userId);
+
+        assertThat(spent()).isEqualByComparingTo("200.00");
+    }
+
+    @Test
+    void rebuildsBudgetPeriodsFromTransactions() {
+        jdbcTemplate.update("UPDATE budget_periods SET spent = 9999, alerted_threshold = 80 WHERE user_id = ?",
+                userId);
+        jdbcTemplate.update("INSERT INTO budget_periods (id, user_id, period_start, spent, alerted_threshold, " +
+                "created_at, updated_at) VALUES (?, ?, ?, 75, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                UUID.randomUUID().toString(), userId, currentPeriod().minusYears(1));
+
+        assertThat(budgetTrackingService.rebuildForUser(userId)).isEqualTo(1);
+
+        assertThat(spent()).isEqualByComparingTo("550.00");
+        assertThat(jdbcTemplate.queryForObject("SELECT alerted_threshold FROM budget_periods " +
+                "WHERE user_id = ? AND period_start = ?", Integer.class, userId, currentPeriod())).isEqualTo(80);
+        assertThat(jdbcTemplate.queryForObject("SELECT spent FROM budget_periods " +
+                "WHERE user_id = ? AND period_start = ?", BigDecimal.class, userId, currentPeriod().minusYears(1)))
+                .isEqualByComparingTo("0");
+    }
+
+    private BigDecimal spent() {
+        return jdbcTemplate.queryForObject("SELECT spent FROM budget_periods WHERE user_id = ? AND period_start = ?",
+                BigDecimal.class, userId, currentPeriod());
+    }
+
+    private static LocalDate currentPeriod() {
+        return LocalDate.now().withDayOfMonth(1);
+    }
+
+    private String account(String name) {
+        AccountDto account = new AccountDto();
+        account.setName(name);
+        account.setType(Account.AccountType.CURRENT);
+        return accountService.createAccount(account, userId).getId();
+    }
+
+    private void transaction(String accountId, Transaction.TransactionType type, String category, String amount) {
+        TransactionDto transaction = new TransactionDto();
+        transaction.setType(type);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setDescription(category);
+        transaction.setDate(LocalDateTime.now().withDayOfMonth(1).withHour(12));
+        transaction.setCategory(category);
+        transaction.setAccountId(accountId);
+        transactionService.createTransaction(transaction, userId);
+    }
+}
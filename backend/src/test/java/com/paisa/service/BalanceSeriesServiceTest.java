@@ -0,0 +1,110 @@
+package com.paisa.service;
+
+import com.paisa.dto.AccountDto;
+import com.paisa.dto.BalanceSeriesDto;
+import com.paisa.dto.TransactionDto;
+import com.paisa.entity.Account;
+import com.paisa.entity.Transaction;
+import com.paisa.entity.User;
+import com.paisa.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BalanceSeriesServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final LocalDate FROM = TODAY.minusDays(10);
+
+    @Autowired
+    private BalanceSeriesService balanceSeriesService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String userId;
+    private String accountId;
+    private TransactionDto expense;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("series-" + UUID.randomUUID() + "@paisa.test");
+        user.setPassword("unused");
+        user.setName("Series");
+        userId = userRepository.save(user).getId();
+
+        AccountDto account = new AccountDto();
+        account.setName("Current");
+        account.setType(Account.AccountType.CURRENT);
+        account.setBalance(new BigDecimal("100.00"));
+        accountId = accountService.createAccount(account, userId).getId();
+
+        TransactionDto dto = new TransactionDto();
+        dto.setType(Transaction.TransactionType.EXPENSE);
+        dto.setAmount(new BigDecimal("40.00"));
+        dto.setDescription("Groceries");
+        dto.setDate(TODAY.minusDays(5).atTime(12, 0));
+        dto.setCategory("groceries");
+        dto.setAccountId(accountId);
+        expense = transactionService.createTransaction(dto, userId);
+    }
+
+    @Test
+    void dropsTheCachedSeriesOnceADateMoveCommits() throws Exception {
+        assertThat(balanceOn(TODAY.minusDays(4))).isEqualByComparingTo("60.00");
+
+        // A read that lands while the move is still uncommitted sees the old dates; it must not be what the
+        // cache holds once the move commits
+        expense.setDate(TODAY.minusDays(2).atTime(12, 0));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            transactionService.updateTransaction(expense.getId(), expense, userId);
+            assertThat(concurrentBalanceOn(TODAY.minusDays(4))).isEqualByComparingTo("60.00");
+        });
+
+        assertThat(balanceOn(TODAY.minusDays(4))).isEqualByComparingTo("100.00");
+        assertThat(balanceOn(TODAY.minusDays(2))).isEqualByComparingTo("60.00");
+    }
+
+    private BigDecimal balanceOn(LocalDate day) {
+        return balanceSeriesService.getSeries(accountId, FROM, TODAY, BalanceSeriesDto.Granularity.DAY).getPoints()
+                .stream()
+                .filter(point -> point.getDate().equals(day))
+                .findFirst()
+                .orElseThrow()
+                .getBalance();
+    }
+
+    private BigDecimal concurrentBalanceOn(LocalDate day) {
+        try {
+            return CompletableFuture.supplyAsync(() -> balanceOn(day)).get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
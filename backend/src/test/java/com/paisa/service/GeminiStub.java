@@ -0,0 +1,120 @@
+package com.paisa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Local stand-in for the Gemini generateContent endpoint; each test sets how the next calls are answered
+class GeminiStub implements AutoCloseable {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile String body = "";
+    private volatile Duration delay = Duration.ZERO;
+    private volatile CountDownLatch hold;
+    private volatile CountDownLatch received = new CountDownLatch(1);
+
+    GeminiStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    // A 200 whose candidate text is the recommendation JSON the prompt asks for
+    GeminiStub recommends(List<String> recommendations, String summary) {
+        try {
+            String text = JSON.writeValueAsString(Map.of("recommendations", recommendations, "summary", summary));
+            Map<String, Object> response = Map.of("candidates",
+                    List.of(Map.of("content", Map.of("parts", List.of(Map.of("text", text))))));
+            return respond(200, JSON.writeValueAsString(response));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    GeminiStub respond(int status, String body) {
+        this.status = status;
+        this.body = body;
+        return this;
+    }
+
+    GeminiStub delay(Duration delay) {
+        this.delay = delay;
+        return this;
+    }
+
+    // Requests wait until release() is called
+    GeminiStub hold() {
+        this.hold = new CountDownLatch(1);
+        return this;
+    }
+
+    void release() {
+        CountDownLatch latch = hold;
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+
+    boolean awaitRequest(Duration timeout) throws InterruptedException {
+        return received.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    int requests() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        release();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            requests.incrementAndGet();
+            received.countDown();
+            CountDownLatch latch = hold;
+            if (latch != null) {
+                latch.await(30, TimeUnit.SECONDS);
+            }
+            if (!delay.isZero()) {
+                Thread.sleep(delay.toMillis());
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // The client gave up on a slow response
+        }
+    }
+}
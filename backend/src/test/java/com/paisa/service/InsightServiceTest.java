@@ -0,0 +1,106 @@
+package com.paisa.service;
+
+import com.paisa.dto.AIRecommendationDto;
+import com.paisa.repository.BudgetPeriodRepository;
+import com.paisa.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InsightServiceTest {
+
+    private static final AIRecommendationDto DEFAULTS = new AIRecommendationDto(List.of("Track your spending"),
+            "Generic advice");
+    private static final AIRecommendationDto ANSWER = new AIRecommendationDto(List.of("Cut dining by a third"),
+            "From Gemini");
+
+    private AIService aiService;
+    private RecommendationPrecomputeService precomputeService;
+    private InsightService insightService;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime to = LocalDateTime.of(2026, 10, 1, 0, 0);
+        SpendProfile profile = new SpendProfile(to.minusMonths(3), to, new BigDecimal("90000.00"),
+                new BigDecimal("54000.00"), List.of());
+        aiService = mock(AIService.class);
+        when(aiService.loadProfile(anyString())).thenReturn(profile);
+        when(aiService.fingerprint(profile)).thenReturn("fingerprint");
+        when(aiService.getDefaultRecommendations()).thenReturn(DEFAULTS);
+        when(aiService.getRecommendationsAsync(anyString(), eq(profile)))
+                .thenAnswer(call -> CompletableFuture.completedFuture(ANSWER));
+        precomputeService = mock(RecommendationPrecomputeService.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        insightService.shutdown();
+    }
+
+    @Test
+    void storesGeminiOutputOnTheStoreWorkers() throws Exception {
+        insightService = insightService(2, 10);
+        AtomicReference<String> storeThread = new AtomicReference<>();
+        doAnswer(call -> {
+            storeThread.set(Thread.currentThread().getName());
+            return null;
+        }).when(precomputeService).store(anyString(), anyString(), any());
+
+        assertThat(insightService.getRecommendationsAsync("user-1").get(5, TimeUnit.SECONDS)).isEqualTo(ANSWER);
+
+        verify(precomputeService).store("user-1", "fingerprint", ANSWER);
+        assertThat(storeThread.get()).isEqualTo("ai-store-worker");
+    }
+
+    @Test
+    void servesTheAnswerWithoutStoringItWhenTheStoreQueueIsFull() throws Exception {
+        insightService = insightService(1, 1);
+        CountDownLatch storing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(call -> {
+            storing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(precomputeService).store(anyString(), anyString(), any());
+
+        try {
+            CompletableFuture<AIRecommendationDto> running = insightService.getRecommendationsAsync("user-1");
+            assertThat(storing.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<AIRecommendationDto> queued = insightService.getRecommendationsAsync("user-2");
+
+            assertThat(insightService.getRecommendationsAsync("user-3").get(5, TimeUnit.SECONDS)).isEqualTo(ANSWER);
+            assertThat(running).isNotDone();
+            assertThat(queued).isNotDone();
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(ANSWER);
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo(ANSWER);
+        } finally {
+            release.countDown();
+        }
+        verify(precomputeService, times(2)).store(anyString(), anyString(), any());
+    }
+
+    private InsightService insightService(int storeWorkers, int storeQueueSize) {
+        return new InsightService(aiService, precomputeService, mock(MonthlyRollupService.class),
+                mock(BudgetPeriodRepository.class), mock(TransactionRepository.class), storeWorkers, storeQueueSize);
+    }
+}
@@ -0,0 +1,139 @@
+package com.paisa.service;
+
+import com.paisa.dto.AccountDto;
+import com.paisa.dto.PlatformStatsDto;
+import com.paisa.dto.TransactionDto;
+import com.paisa.entity.Account;
+import com.paisa.entity.Transaction;
+import com.paisa.entity.User;
+import com.paisa.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Rows from a long import or recurring chunk carry the time they were persisted, which can fall behind the stats
+// watermark before the transaction commits; the tests backdate updated_at after the write to stand in for that
+@SpringBootTest(properties = "stats.watermark-lag=0s")
+@ActiveProfiles("test")
+class PlatformStatsServiceTest {
+
+    private static final LocalDateTime PERSISTED_LONG_AGO = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    @Autowired
+    private PlatformStatsService platformStatsService;
+
+    @Autowired
+    private TransactionImportService transactionImportService;
+
+    @Autowired
+    private RecurringTransactionService recurringTransactionService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String userId;
+    private String accountId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("stats-" + UUID.randomUUID() + "@paisa.test");
+        user.setPassword("unused");
+        user.setName("Stats");
+        userId = userRepository.save(user).getId();
+
+        AccountDto account = new AccountDto();
+        account.setName("Current");
+        account.setType(Account.AccountType.CURRENT);
+        accountId = accountService.createAccount(account, userId).getId();
+
+        // Gives the watermark a position even on an empty database, so a refresh moves it past PERSISTED_LONG_AGO
+        TransactionDto salary = new TransactionDto();
+        salary.setType(Transaction.TransactionType.INCOME);
+        salary.setAmount(new BigDecimal("1000.00"));
+        salary.setDescription("Salary");
+        salary.setDate(LocalDateTime.now());
+        salary.setCategory("salary");
+        salary.setAccountId(accountId);
+        transactionService.createTransaction(salary, userId);
+    }
+
+    @Test
+    void countsImportedRowsPersistedBeforeTheWatermark() throws Exception {
+        // A day of its own, far from the rows other tests write
+        LocalDate day = LocalDate.of(1995, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(3000));
+        platformStatsService.refresh();
+        PlatformStatsDto.DailyStats before = daily(day, day);
+
+        String rows = "[" +
+                row(day, "10.00") + "," + row(day, "20.00") + "," + row(day, "30.00") + "]";
+        transactionImportService.importJson(new ByteArrayInputStream(rows.getBytes(StandardCharsets.UTF_8)), userId);
+        jdbcTemplate.update("UPDATE transactions SET updated_at = ? WHERE user_id = ?", PERSISTED_LONG_AGO, userId);
+        platformStatsService.refresh();
+
+        PlatformStatsDto.DailyStats after = daily(day, day);
+        assertThat(after.getExpenseCount() - before.getExpenseCount()).isEqualTo(3);
+        assertThat(after.getExpenseVolume().subtract(before.getExpenseVolume())).isEqualByComparingTo("60.00");
+    }
+
+    @Test
+    void countsRecurringOccurrencesPersistedBeforeTheWatermark() {
+        LocalDateTime now = LocalDateTime.now();
+        TransactionDto template = new TransactionDto();
+        template.setType(Transaction.TransactionType.EXPENSE);
+        template.setAmount(new BigDecimal("4.25"));
+        template.setDescription("Subscription");
+        template.setDate(now.minusDays(3).minusHours(1));
+        template.setCategory("entertainment");
+        template.setIsRecurring(true);
+        template.setRecurringInterval(Transaction.RecurringInterval.DAILY);
+        template.setAccountId(accountId);
+        transactionService.createTransaction(template, userId);
+        platformStatsService.refresh();
+        long before = expenseCount(now.minusDays(2).minusHours(1).toLocalDate(), now.toLocalDate());
+
+        assertThat(recurringTransactionService.materializeDueTransactions().getItemsWritten()).isEqualTo(3);
+        jdbcTemplate.update("UPDATE transactions SET updated_at = ? WHERE user_id = ?", PERSISTED_LONG_AGO, userId);
+        platformStatsService.refresh();
+
+        long after = expenseCount(now.minusDays(2).minusHours(1).toLocalDate(), now.toLocalDate());
+        assertThat(after - before).isEqualTo(3);
+    }
+
+    private PlatformStatsDto.DailyStats daily(LocalDate from, LocalDate to) {
+        return platformStatsService.getStats(from, to, null, 1).getDaily().get(0);
+    }
+
+    private long expenseCount(LocalDate from, LocalDate to) {
+        return platformStatsService.getStats(from, to, null, 1).getDaily().stream()
+                .mapToLong(PlatformStatsDto.DailyStats::getExpenseCount)
+                .sum();
+    }
+
+    private String row(LocalDate day, String amount) {
+        return "{\"type\":\"EXPENSE\",\"amount\":" + amount + ",\"description\":\"Imported\",\"date\":\"" +
+                day.atTime(12, 0) + "\",\"category\":\"groceries\",\"accountId\":\"" + accountId + "\"}";
+    }
+}
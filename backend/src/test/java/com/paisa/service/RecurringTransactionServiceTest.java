@@ -0,0 +1,109 @@
+package com.paisa.service;
+
+import com.paisa.dto.AccountDto;
+import com.paisa.dto.JobRunDto;
+import com.paisa.dto.TransactionDto;
+import com.paisa.entity.Account;
+import com.paisa.entity.Transaction;
+import com.paisa.entity.User;
+import com.paisa.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class RecurringTransactionServiceTest {
+
+    private static final int TEMPLATES = 20;
+    private static final int OVERDUE_DAYS = 9;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("5000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("3.50");
+
+    @Autowired
+    private RecurringTransactionService recurringTransactionService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String userId;
+    private String accountId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("recurring-" + UUID.randomUUID() + "@paisa.test");
+        user.setPassword("unused");
+        user.setName("Recurring");
+        userId = userRepository.save(user).getId();
+
+        AccountDto account = new AccountDto();
+        account.setName("Current");
+        account.setType(Account.AccountType.CURRENT);
+        account.setBalance(OPENING_BALANCE);
+        accountId = accountService.createAccount(account, userId).getId();
+
+        LocalDateTime date = LocalDateTime.now().minusDays(OVERDUE_DAYS).minusHours(1);
+        for (int i = 0; i < TEMPLATES; i++) {
+            TransactionDto template = new TransactionDto();
+            template.setType(Transaction.TransactionType.EXPENSE);
+            template.setAmount(AMOUNT);
+            template.setDescription("Subscription " + i);
+            template.setDate(date);
+            template.setCategory("entertainment");
+            template.setIsRecurring(true);
+            template.setRecurringInterval(Transaction.RecurringInterval.DAILY);
+            template.setAccountId(accountId);
+            transactionService.createTransaction(template, userId);
+        }
+    }
+
+    @Test
+    void materializesOverdueOccurrencesInBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long preparedBefore = statistics.getPrepareStatementCount();
+
+        JobRunDto run = recurringTransactionService.materializeDueTransactions();
+
+        long prepared = statistics.getPrepareStatementCount() - preparedBefore;
+        assertThat(run.getItemsProcessed()).isEqualTo(TEMPLATES);
+        assertThat(run.getItemsWritten()).isEqualTo((long) TEMPLATES * OVERDUE_DAYS);
+        // One claim UPDATE per template and one stats mark per occurrence day, but the occurrences go out as one
+        // batched INSERT rather than one per template; the rest is the due scan, the template load and the
+        // ledger, rollup and budget deltas
+        assertThat(prepared).isLessThan(TEMPLATES + OVERDUE_DAYS + 15);
+
+        BigDecimal spent = AMOUNT.multiply(BigDecimal.valueOf((long) TEMPLATES * (OVERDUE_DAYS + 1)));
+        assertThat(jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class,
+                accountId)).isEqualByComparingTo(OPENING_BALANCE.subtract(spent));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE account_id = ?", Long.class,
+                accountId)).isEqualTo((long) TEMPLATES * (OVERDUE_DAYS + 1));
+
+        // Every template was advanced past now, so a second run has nothing left to claim
+        assertThat(recurringTransactionService.materializeDueTransactions().getItemsWritten()).isZero();
+    }
+}
@@ -0,0 +1,27 @@
+package com.paisa.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvWriterTest {
+
+    @Test
+    void quotesDelimitersQuotesAndLineBreaks() {
+        assertThat(CsvWriter.row("plain", "a,b", "say \"hi\"", "two\nlines", null))
+                .isEqualTo("plain,\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\",\n");
+    }
+
+    @Test
+    void neutralizesTextThatSpreadsheetsWouldEvaluate() {
+        assertThat(CsvWriter.row("=HYPERLINK(\"http://x\")", "+1", "-2", "@SUM(A1)", "\tcmd"))
+                .isEqualTo("\"'=HYPERLINK(\"\"http://x\"\")\",'+1,'-2,'@SUM(A1),'\tcmd\n");
+    }
+
+    @Test
+    void leavesNegativeNumbersAlone() {
+        assertThat(CsvWriter.row(new BigDecimal("-42.50"), -3)).isEqualTo("-42.50,-3\n");
+    }
+}
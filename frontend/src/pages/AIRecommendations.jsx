@@ -1,21 +1,38 @@
-import { useState } from 'react'
+import { useEffect, useRef, useState } from 'react'
 import api from '../services/api'
-import { Sparkles, Loader2 } from 'lucide-react'
+import { Sparkles, Loader2, Lightbulb } from 'lucide-react'
+
+const POLL_INTERVAL_MS = 2000
+const MAX_POLLS = 15
 
 export default function AIRecommendations() {
   const [recommendations, setRecommendations] = useState(null)
   const [loading, setLoading] = useState(false)
+  const pollTimer = useRef(null)
+
+  useEffect(() => () => clearTimeout(pollTimer.current), [])
 
-  const fetchRecommendations = async () => {
-    setLoading(true)
+  // Local insights arrive immediately; AI recommendations are merged in once the server has them
+  const fetchRecommendations = async (attempt = 0) => {
+    clearTimeout(pollTimer.current)
+    if (attempt === 0) {
+      setLoading(true)
+    }
     try {
-      const response = await api.post('/ai/recommendations')
+      const response = await api.get('/ai/insights')
       setRecommendations(response.data)
+      if (response.data.aiStatus === 'PENDING' && attempt < MAX_POLLS) {
+        pollTimer.current = setTimeout(() => fetchRecommendations(attempt + 1), POLL_INTERVAL_MS)
+      }
     } catch (error) {
       console.error('Failed to fetch recommendations:', error)
-      alert('Failed to get AI recommendations')
+      if (attempt === 0) {
+        alert('Failed to get AI recommendations')
+      }
     } finally {
-      setLoading(false)
+      if (attempt === 0) {
+        setLoading(false)
+      }
     }
   }
 
@@ -24,7 +41,7 @@ export default function AIRecommendations() {
       <div className="flex justify-between items-center">
         <h1 className="text-3xl font-bold text-gray-900">AI Recommendations</h1>
         <button
-          onClick={fetchRecommendations}
+          onClick={() => fetchRecommendations()}
           disabled={loading}
           className="inline-flex items-center px-4 py-2 border border-transparent text-sm font-medium rounded-md text-white bg-blue-600 hover:bg-blue-700 disabled:opacity-50"
         >
@@ -51,6 +68,27 @@ export default function AIRecommendations() {
             </div>
           )}
 
+          {recommendations.insights && recommendations.insights.length > 0 && (
+            <div className="bg-white rounded-lg shadow p-6">
+              <h2 className="text-xl font-semibold mb-4">Insights</h2>
+              <ul className="space-y-3">
+                {recommendations.insights.map((insight, index) => (
+                  <li key={index} className="flex items-start">
+                    <Lightbulb className="flex-shrink-0 w-5 h-5 text-yellow-500 mr-3 mt-0.5" />
+                    <p className="text-gray-700">{insight}</p>
+                  </li>
+                ))}
+              </ul>
+            </div>
+          )}
+
+          {recommendations.aiStatus === 'PENDING' && (
+            <div className="flex items-center text-sm text-gray-500">
+              <Loader2 className="w-4 h-4 mr-2 animate-spin" />
+              Generating AI recommendations...
+            </div>
+          )}
+
           {recommendations.recommendations && recommendations.recommendations.length > 0 && (
             <div className="bg-white rounded-lg shadow p-6">
               <h2 className="text-xl font-semibold mb-4">Recommendations</h2>
@@ -74,7 +112,7 @@ export default function AIRecommendations() {
             Get personalized financial recommendations based on your spending patterns
           </p>
           <button
-            onClick={fetchRecommendations}
+            onClick={() => fetchRecommendations()}
             className="inline-flex items-center px-4 py-2 border border-transparent text-sm font-medium rounded-md text-white bg-blue-600 hover:bg-blue-700"
           >
             Get Started
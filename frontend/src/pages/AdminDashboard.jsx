@@ -13,6 +13,7 @@ export default function AdminDashboard() {
   const [users, setUsers] = useState([])
   const [accounts, setAccounts] = useState([])
   const [transactions, setTransactions] = useState([])
+  const [cursors, setCursors] = useState({})
   const [loadingData, setLoadingData] = useState(false)
   const [activeTab, setActiveTab] = useState('users')
 
@@ -36,9 +37,14 @@ export default function AdminDashboard() {
         api.get('/admin/accounts'),
         api.get('/admin/transactions'),
       ])
-      setUsers(usersRes.data || [])
-      setAccounts(accountsRes.data || [])
-      setTransactions(transactionsRes.data || [])
+      setUsers(usersRes.data?.items || [])
+      setAccounts(accountsRes.data?.items || [])
+      setTransactions(transactionsRes.data?.items || [])
+      setCursors({
+        users: usersRes.data?.nextCursor,
+        accounts: accountsRes.data?.nextCursor,
+        transactions: transactionsRes.data?.nextCursor,
+      })
     } catch (err) {
       console.error('Failed to load admin data', err)
     } finally {
@@ -46,6 +52,17 @@ export default function AdminDashboard() {
     }
   }
 
+  const loadMore = async (tab) => {
+    const setters = { users: setUsers, accounts: setAccounts, transactions: setTransactions }
+    try {
+      const res = await api.get(`/admin/${tab}`, { params: { cursor: cursors[tab] } })
+      setters[tab]((rows) => [...rows, ...(res.data?.items || [])])
+      setCursors((prev) => ({ ...prev, [tab]: res.data?.nextCursor }))
+    } catch (err) {
+      console.error(`Failed to load more ${tab}`, err)
+    }
+  }
+
   const handleAdminLogin = async (e) => {
     e.preventDefault()
     setLoginError('')
@@ -252,6 +269,17 @@ export default function AdminDashboard() {
                   </table>
                 </div>
               )}
+
+              {cursors[activeTab] && (
+                <div className="text-center">
+                  <button
+                    onClick={() => loadMore(activeTab)}
+                    className="px-4 py-2 text-sm font-medium text-blue-600 hover:text-blue-800"
+                  >
+                    Load more
+                  </button>
+                </div>
+              )}
             </>
           )}
       </div>